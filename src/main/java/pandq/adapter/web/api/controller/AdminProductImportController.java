@@ -0,0 +1,43 @@
+package pandq.adapter.web.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pandq.adapter.web.api.dtos.ProductImportDTO;
+import pandq.application.services.ProductImportService;
+
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/products")
+@RequiredArgsConstructor
+public class AdminProductImportController {
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Stream a catalog file as the raw request body: application/x-ndjson (one product per line)
+     * or text/csv (header row first). Returns the import report once the stream is consumed.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ProductImportDTO.Report> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        String format = contentType.startsWith("text/csv")
+                ? ProductImportService.FORMAT_CSV
+                : ProductImportService.FORMAT_NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    @GetMapping("/import/running")
+    public ResponseEntity<List<ProductImportDTO.Report>> getRunningImports() {
+        return ResponseEntity.ok(productImportService.getRunningImports());
+    }
+}
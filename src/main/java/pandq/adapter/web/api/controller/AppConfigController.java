@@ -4,12 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import pandq.adapter.web.api.dtos.AppConfigDTO;
+import pandq.adapter.web.api.dtos.SyncDTO;
 import pandq.application.services.CategoryService;
 import pandq.application.services.BranchService;
+import pandq.application.services.SyncService;
+import pandq.domain.models.enums.SyncEntityType;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +24,7 @@ public class AppConfigController {
 
     private final CategoryService categoryService;
     private final BranchService branchService;
+    private final SyncService syncService;
 
     /**
      * Returns version numbers for locations and categories.
@@ -26,15 +32,28 @@ public class AppConfigController {
      */
     @GetMapping("/init-config")
     public ResponseEntity<AppConfigDTO.InitConfigResponse> getInitConfig() {
-        // Version numbers - can be stored in database or config
-        // For now, using static versions
+        Map<SyncEntityType, Long> versions = syncService.getLatestVersions();
         return ResponseEntity.ok(
                 AppConfigDTO.InitConfigResponse.builder()
-                        .locationVersion(1)
-                        .categoryVersion(1)
+                        .locationVersion(versions.get(SyncEntityType.BRANCH))
+                        .categoryVersion(versions.get(SyncEntityType.CATEGORY))
+                        .catalogVersion(versions.get(SyncEntityType.PRODUCT))
+                        .syncVersion(versions.values().stream().max(Long::compare).orElse(0L))
                         .build());
     }
 
+    /**
+     * Returns categories, locations and products changed after the given version,
+     * plus the ids of deleted ones. since=0 returns everything.
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<SyncDTO.Response> sync(
+            @RequestParam(required = false, defaultValue = "0") Long since,
+            @RequestParam(required = false, defaultValue = "500") Integer limit
+    ) {
+        return ResponseEntity.ok(syncService.getChangesSince(since, limit));
+    }
+
     /**
      * Returns list of store locations (branches).
      */
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pandq.adapter.web.api.dtos.InventoryDTO;
 import pandq.application.services.InventoryService;
+import pandq.domain.models.PaginatedResult;
 
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +27,21 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getAllInventory());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PaginatedResult<InventoryDTO.Response>> getInventoryPage(
+            @RequestParam(required = false) UUID branchId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(inventoryService.getInventoryPage(branchId, cursor, size));
+    }
+
+    @GetMapping("/low-stock")
+    public ResponseEntity<PaginatedResult<InventoryDTO.Response>> getLowStockPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(inventoryService.getLowStockPage(cursor, size));
+    }
+
     @GetMapping("/branch/{branchId}")
     public ResponseEntity<List<InventoryDTO.Response>> getInventoryByBranch(@PathVariable UUID branchId) {
         return ResponseEntity.ok(inventoryService.getInventoryByBranch(branchId));
@@ -40,15 +56,13 @@ public class InventoryController {
     }
     
     /**
-     * Recalculate and sync reserved quantities based on actual active orders.
-     * Use this endpoint when reserved quantities are out of sync with order statuses.
-     * Active orders = CONFIRMED or SHIPPING status
-     * 
-     * @return Number of inventory items that were corrected
+     * Reconcile reserved quantities with the CONFIRMED and SHIPPING orders now, instead of waiting for the
+     * scheduled run. Only drifted rows are changed.
+     *
+     * @return Rows checked and the drift that was corrected
      */
     @PostMapping("/recalculate-reserved")
-    public ResponseEntity<String> recalculateReservedQuantities() {
-        int correctedCount = inventoryService.recalculateReservedQuantities();
-        return ResponseEntity.ok("Recalculated reserved quantities. Products with active reservations: " + correctedCount);
+    public ResponseEntity<InventoryDTO.ReconciliationResponse> recalculateReservedQuantities() {
+        return ResponseEntity.ok(inventoryService.reconcileReservedQuantities());
     }
 }
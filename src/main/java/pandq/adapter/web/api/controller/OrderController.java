@@ -5,8 +5,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pandq.adapter.web.api.dtos.OrderDTO;
 import pandq.adapter.web.api.dtos.ShippingDTO;
+import pandq.application.services.CartService;
+import pandq.application.services.IdempotencyService;
 import pandq.application.services.OrderService;
 import pandq.application.services.ShippingCalculatorService;
+import pandq.domain.models.PaginatedResult;
+import pandq.domain.models.enums.IdempotencyScope;
+import pandq.domain.models.enums.OrderStatus;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,7 +22,9 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CartService cartService;
     private final ShippingCalculatorService shippingCalculatorService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     public ResponseEntity<List<OrderDTO.Response>> getAllOrders() {
@@ -29,43 +36,67 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PaginatedResult<OrderDTO.Response>> getOrderPage(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(orderService.getOrderPage(listRequest(status, cursor, size)));
+    }
+
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<PaginatedResult<OrderDTO.Response>> getOrderHistory(
+            @PathVariable String userId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(orderService.getOrderHistory(userId, listRequest(status, cursor, size)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO.Response> getOrderById(@PathVariable UUID id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
+    /**
+     * Clients retrying a request send the same Idempotency-Key and get the first order back.
+     */
     @PostMapping
-    public ResponseEntity<OrderDTO.Response> createOrder(@RequestBody OrderDTO.CreateRequest request) {
-        return ResponseEntity.ok(orderService.createOrder(request));
+    public ResponseEntity<OrderDTO.Response> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody OrderDTO.CreateRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute(
+                IdempotencyScope.ORDER_CREATE, idempotencyKey, request, OrderDTO.Response.class,
+                () -> orderService.createOrder(request)));
     }
 
     @PostMapping("/cart/add")
     public ResponseEntity<OrderDTO.Response> addToCart(@RequestBody OrderDTO.AddToCartRequest request) {
-        return ResponseEntity.ok(orderService.addToCart(request));
+        return ResponseEntity.ok(cartService.addToCart(request));
     }
 
     @PostMapping("/cart/decrease")
     public ResponseEntity<OrderDTO.Response> decreaseQuantity(@RequestBody OrderDTO.AddToCartRequest request) {
-        return ResponseEntity.ok(orderService.decreaseQuantity(request));
+        return ResponseEntity.ok(cartService.decreaseQuantity(request));
     }
 
     @DeleteMapping("/cart/{userId}/{productId}")
     public ResponseEntity<OrderDTO.Response> removeFromCart(
             @PathVariable String userId,
             @PathVariable UUID productId) {
-        return ResponseEntity.ok(orderService.removeFromCart(userId, productId));
+        return ResponseEntity.ok(cartService.removeFromCart(userId, productId));
     }
 
     @GetMapping("/cart/{userId}")
     public ResponseEntity<OrderDTO.Response> getCart(@PathVariable String userId) {
-        return ResponseEntity.ok(orderService.getCart(userId));
+        return ResponseEntity.ok(cartService.getCart(userId));
     }
 
     @PostMapping("/cart/merge/{userId}")
     public ResponseEntity<OrderDTO.Response> mergeGuestCart(
             @PathVariable String userId,
             @RequestBody List<OrderDTO.AddToCartRequest> guestCartItems) {
-        return ResponseEntity.ok(orderService.mergeGuestCart(userId, guestCartItems));
+        return ResponseEntity.ok(cartService.mergeGuestCart(userId, guestCartItems));
     }
 
     // ==================== Shipping Management ====================
@@ -141,7 +172,21 @@ public class OrderController {
             @PathVariable UUID id,
             @RequestBody OrderDTO.UpdateStatusRequest request) {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, request.getStatus()));
-    }        
+    }
+
+    /**
+     * Move many orders to one status at once; all of them change or none do
+     */
+    @PutMapping("/status/bulk")
+    public ResponseEntity<OrderDTO.BulkStatusResponse> bulkUpdateStatus(
+            @RequestBody OrderDTO.BulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.bulkUpdateStatus(request));
+    }
+
+    @GetMapping("/{id}/status-history")
+    public ResponseEntity<List<OrderDTO.StatusHistoryResponse>> getStatusHistory(@PathVariable UUID id) {
+        return ResponseEntity.ok(orderService.getStatusHistory(id));
+    }
     // ==================== COD Payment ====================
 
     /**
@@ -173,4 +218,12 @@ public class OrderController {
     public ResponseEntity<List<OrderDTO.Response>> getAllOrdersIncludingCart() {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
+
+    private OrderDTO.ListRequest listRequest(OrderStatus status, String cursor, Integer size) {
+        OrderDTO.ListRequest request = new OrderDTO.ListRequest();
+        request.setStatus(status);
+        request.setCursor(cursor);
+        request.setSize(size);
+        return request;
+    }
 }
@@ -9,6 +9,8 @@ import pandq.adapter.web.api.dtos.ProductSearchDTO;
 import pandq.adapter.web.api.dtos.response.PaginationMetaDto;
 import pandq.adapter.web.api.dtos.response.PaginationResponseDto;
 import pandq.application.services.ProductService;
+import pandq.application.services.ProductSuggestionService;
+import pandq.domain.models.PaginatedResult;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,6 +22,7 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSuggestionService productSuggestionService;
 
     @GetMapping
     public ResponseEntity<List<ProductDTO.Response>> getAllProducts() {
@@ -31,6 +34,21 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
     }
 
+    @GetMapping("/listing")
+    public ResponseEntity<PaginatedResult<ProductDTO.Response>> getProductListing(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false, defaultValue = "newest") String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer size
+    ) {
+        ProductDTO.ListingRequest request = new ProductDTO.ListingRequest();
+        request.setCategoryId(categoryId);
+        request.setSortBy(sortBy);
+        request.setCursor(cursor);
+        request.setSize(size);
+        return ResponseEntity.ok(productService.getProductListing(request));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<PaginationResponseDto<ProductSearchDTO.Response>> searchProducts(
             @RequestParam(required = false) String query,
@@ -41,7 +59,8 @@ public class ProductController {
             @RequestParam(required = false, defaultValue = "false") Boolean inStockOnly,
             @RequestParam(required = false, defaultValue = "newest") String sortBy,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "20") Integer size
+            @RequestParam(required = false, defaultValue = "20") Integer size,
+            @RequestParam(required = false, defaultValue = "false") Boolean includeFacets
     ) {
         ProductSearchDTO.SearchRequest request = new ProductSearchDTO.SearchRequest();
         request.setQuery(query);
@@ -53,8 +72,11 @@ public class ProductController {
         request.setSortBy(sortBy);
         request.setPage(page);
         request.setSize(size);
+        request.setIncludeFacets(includeFacets);
 
-        Page<ProductSearchDTO.Response> result = productService.searchProducts(request);
+        ProductSearchDTO.SearchResult search = productService.searchProducts(request);
+        Page<ProductSearchDTO.Response> result = search.getPage();
+        ProductSearchDTO.Facets facets = search.getFacets();
         
         PaginationMetaDto paginationMeta = new PaginationMetaDto(
             result.getNumber(),
@@ -65,14 +87,25 @@ public class ProductController {
         return ResponseEntity.ok(PaginationResponseDto.of(
             result.getContent(),
             paginationMeta,
+            facets,
             "OK",
             "Search successful"
         ));
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSearchDTO.Suggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false, defaultValue = "10") Integer limit
+    ) {
+        return ResponseEntity.ok(productSuggestionService.suggest(prefix, limit));
+    }
+
     @GetMapping("/trending-searches")
-    public ResponseEntity<List<String>> getTrendingSearches() {
-        return ResponseEntity.ok(productService.getTrendingSearches());
+    public ResponseEntity<List<String>> getTrendingSearches(
+            @RequestParam(required = false, defaultValue = "24h") String window
+    ) {
+        return ResponseEntity.ok(productService.getTrendingSearches(window));
     }
 
     @GetMapping("/{id}")
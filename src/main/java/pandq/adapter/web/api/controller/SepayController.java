@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pandq.adapter.web.api.dtos.SepayDTO;
+import pandq.application.exceptions.OperationFailedException;
+import pandq.application.services.IdempotencyService;
 import pandq.application.services.SepayService;
+import pandq.domain.models.enums.IdempotencyScope;
 
 /**
  * Controller for SePay payment integration
@@ -15,6 +18,7 @@ import pandq.application.services.SepayService;
 public class SepayController {
 
     private final SepayService sepayService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a VietQR code for payment
@@ -33,7 +37,18 @@ public class SepayController {
     @PostMapping("/webhook")
     public ResponseEntity<SepayDTO.WebhookResponse> handleWebhook(
             @RequestBody SepayDTO.WebhookRequest request) {
-        SepayDTO.WebhookResponse response = sepayService.handleWebhook(request);
+        // SePay retries a webhook with the same transaction id until it gets a success response
+        String transactionId = request.getId() != null ? request.getId().toString() : null;
+        SepayDTO.WebhookResponse response = idempotencyService.execute(
+                IdempotencyScope.SEPAY_WEBHOOK, transactionId, request, SepayDTO.WebhookResponse.class,
+                () -> {
+                    SepayDTO.WebhookResponse processed = sepayService.handleWebhook(request);
+                    if (!Boolean.TRUE.equals(processed.getSuccess())) {
+                        // Not stored, so SePay's retry runs it again
+                        throw new OperationFailedException("SePay webhook", processed.getMessage());
+                    }
+                    return processed;
+                });
         return ResponseEntity.ok(response);
     }
 
@@ -1,18 +1,24 @@
 package pandq.adapter.web.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody;
 import pandq.adapter.web.api.dtos.ProductDTO;
 import pandq.application.services.ProductService;
+import pandq.infrastructure.cache.ProductSharePageCache;
 
+import java.nio.charset.StandardCharsets;
 import java.text.NumberFormat;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 @RequestMapping("/products")
@@ -20,12 +26,69 @@ import java.util.UUID;
 public class WebProductController {
 
     private final ProductService productService;
+    private final ProductSharePageCache sharePageCache;
 
+    /**
+     * Share page served from ProductSharePageCache. Spring answers If-None-Match / If-Modified-Since
+     * with 304 from the ETag and Last-Modified set here; gzip is used when the client accepts it.
+     */
     @GetMapping(value = "/{id}", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String getProductDetailHtml(@PathVariable UUID id) {
-        ProductDTO.Response product = productService.getProductById(id);
-        
+    public ResponseEntity<byte[]> getProductDetailHtml(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductSharePageCache.RenderedPage page = sharePageCache.get(id,
+                () -> productService.getProductById(id), product -> renderProductDetailHtml(id, product));
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .eTag(gzip ? page.gzipEtag() : page.etag())
+                .lastModified(page.lastModified())
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzippedBody());
+        }
+        return response.body(page.body());
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip: listed as gzip (or x-gzip), or covered by *, with a non-zero q.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    private String renderProductDetailHtml(UUID id, ProductDTO.Response product) {
         String priceFormatted = NumberFormat.getIntegerInstance(Locale.forLanguageTag("vi-VN")).format(product.getPrice());
         String imageUrl = product.getThumbnailUrl();
         if (imageUrl == null || imageUrl.isEmpty()) {
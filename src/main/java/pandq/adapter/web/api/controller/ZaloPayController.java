@@ -1,10 +1,13 @@
 package pandq.adapter.web.api.controller;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pandq.adapter.web.api.dtos.ZaloPayDTO;
+import pandq.application.services.IdempotencyService;
 import pandq.application.services.ZaloPayService;
+import pandq.domain.models.enums.IdempotencyScope;
 
 /**
  * Controller for ZaloPay payment integration
@@ -12,9 +15,11 @@ import pandq.application.services.ZaloPayService;
 @RestController
 @RequestMapping("/api/v1/payments/zalopay")
 @RequiredArgsConstructor
+@Slf4j
 public class ZaloPayController {
 
     private final ZaloPayService zaloPayService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Create a ZaloPay payment order
@@ -38,10 +43,26 @@ public class ZaloPayController {
         
         ZaloPayDTO.CallbackResponse response = new ZaloPayDTO.CallbackResponse();
         if (isValid) {
-            // Process callback and update order status
-            zaloPayService.processCallback(request.getData());
-            response.setReturnCode(1);
-            response.setReturnMessage("Success");
+            // Process callback and update order status; redelivered callbacks get the stored result
+            try {
+                response = idempotencyService.execute(
+                        IdempotencyScope.ZALOPAY_CALLBACK,
+                        zaloPayService.callbackTransactionId(request.getData()),
+                        request.getData(),
+                        ZaloPayDTO.CallbackResponse.class,
+                        () -> {
+                            zaloPayService.processCallback(request.getData());
+                            ZaloPayDTO.CallbackResponse processed = new ZaloPayDTO.CallbackResponse();
+                            processed.setReturnCode(1);
+                            processed.setReturnMessage("Success");
+                            return processed;
+                        });
+            } catch (RuntimeException e) {
+                // Nothing is stored for a failed callback; return_code 0 makes ZaloPay send it again
+                log.error("ZaloPay callback failed, asking for a retry", e);
+                response.setReturnCode(0);
+                response.setReturnMessage("Retry: " + e.getMessage());
+            }
         } else {
             response.setReturnCode(-1);
             response.setReturnMessage("Invalid MAC");
@@ -14,8 +14,10 @@ public class AppConfigDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class InitConfigResponse {
-        private Integer locationVersion;
-        private Integer categoryVersion;
+        private Long locationVersion;
+        private Long categoryVersion;
+        private Long catalogVersion;
+        private Long syncVersion; // Highest version across all types
     }
 
     @Data
@@ -31,9 +31,24 @@ public class InventoryDTO {
     @Data
     public static class StatsResponse {
         private BigDecimal totalInventoryValue;
-        private Integer totalProductsInStock;
-        private Integer lowStockCount;
-        private List<Response> lowStockItems;
-        private List<Response> allItems;
+        private Long totalProductsInStock;
+        private Long lowStockCount;
+        private List<Response> lowStockItems; // First page, furthest below minimum first
+        private String lowStockNextCursor; // Further pages from GET /inventory/low-stock
+    }
+
+    @Data
+    public static class ReconciliationResponse {
+        private Integer rowsChecked;
+        private Integer rowsCorrected;
+        private List<DriftResponse> drifts; // Corrected rows only
+    }
+
+    @Data
+    public static class DriftResponse {
+        private UUID inventoryId;
+        private UUID productId;
+        private Integer recordedReserved;
+        private Integer expectedReserved;
     }
 }
@@ -131,6 +131,17 @@ public class OrderDTO {
         public void setQuantity(Integer quantity) { this.quantity = quantity; }
     }
 
+    /**
+     * Keyset-paged order list, newest first. Follow nextCursor until it is null.
+     */
+    @Data
+    public static class ListRequest {
+        private UUID userId; // Set by the service after resolving the caller
+        private OrderStatus status; // Optional filter
+        private String cursor;
+        private Integer size = 20;
+    }
+
     // ==================== Shipping Management DTOs ====================
 
     @Data
@@ -152,6 +163,28 @@ public class OrderDTO {
         public void setStatus(OrderStatus status) { this.status = status; }
     }
 
+    @Data
+    public static class BulkStatusRequest {
+        private List<UUID> orderIds;
+        private OrderStatus status;
+        private String description; // Optional note recorded in the status history
+    }
+
+    @Data
+    public static class BulkStatusResponse {
+        private OrderStatus status;
+        private List<UUID> updatedOrderIds;
+        private List<UUID> unchangedOrderIds; // Already in the requested status
+    }
+
+    @Data
+    public static class StatusHistoryResponse {
+        private OrderStatus status;
+        private String description;
+        private String createdBy;
+        private LocalDateTime createdAt;
+    }
+
     @Data
     public static class ApplyPromotionRequest {
         private String userId; // For voucher validation
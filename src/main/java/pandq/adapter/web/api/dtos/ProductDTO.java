@@ -3,6 +3,7 @@ package pandq.adapter.web.api.dtos;
 import lombok.Data;
 import pandq.domain.models.enums.Status;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,6 +37,14 @@ public class ProductDTO {
         private Integer stockQuantity;
     }
 
+    @Data
+    public static class ListingRequest {
+        private UUID categoryId;
+        private String sortBy = "newest"; // newest, price_asc, price_desc, rating
+        private String cursor;
+        private Integer size = 20;
+    }
+
     @Data
     public static class Response {
         private UUID id;
@@ -52,6 +61,7 @@ public class ProductDTO {
         private List<ProductImageDTO> images;
         private List<ProductSpecificationDTO> specifications;
         private List<RelatedProductDTO> relatedProducts;
+        private LocalDateTime updatedAt;
     }
 
     @Data
@@ -0,0 +1,60 @@
+package pandq.adapter.web.api.dtos;
+
+import lombok.Data;
+import pandq.domain.models.enums.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ProductImportDTO {
+
+    /**
+     * One product per NDJSON line. CSV columns use the snake_case names of these fields,
+     * with images separated by "|" and specifications written as "key=value|key=value".
+     */
+    @Data
+    public static class Row {
+        private UUID categoryId;
+        private String name;
+        private String description;
+        private BigDecimal price;
+        private BigDecimal costPrice;
+        private String thumbnailUrl;
+        private Status status;
+        private List<String> images;
+        private List<ProductDTO.ProductSpecificationDTO> specifications;
+        private Integer stockQuantity;
+        private UUID branchId; // Defaults to the first branch when stock is given
+    }
+
+    @Data
+    public static class Report {
+        private UUID importId;
+        private String format;
+        private String status; // RUNNING, COMPLETED, FAILED
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+        private int committedChunks;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String failureMessage;
+        private List<RowError> errors = new ArrayList<>();
+    }
+
+    @Data
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public static RowError of(long line, String message) {
+            RowError error = new RowError();
+            error.setLine(line);
+            error.setMessage(message);
+            return error;
+        }
+    }
+}
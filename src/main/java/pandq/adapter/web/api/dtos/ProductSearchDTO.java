@@ -1,7 +1,10 @@
 package pandq.adapter.web.api.dtos;
 
 import lombok.Data;
+import org.springframework.data.domain.Page;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class ProductSearchDTO {
@@ -14,9 +17,10 @@ public class ProductSearchDTO {
         private BigDecimal maxPrice;
         private Double minRating;
         private Boolean inStockOnly = false;
-        private String sortBy = "newest"; // newest, price_asc, price_desc, rating
+        private String sortBy = "newest"; // newest, price_asc, price_desc, rating, relevance, best_selling
         private Integer page = 0;
         private Integer size = 20;
+        private Boolean includeFacets = false;
     }
 
     @Data
@@ -33,4 +37,52 @@ public class ProductSearchDTO {
         private Boolean isBestSeller;
         private Integer stockQuantity;
     }
+
+    @Data
+    public static class Suggestion {
+        private String text;
+        private String type; // PRODUCT, KEYWORD
+        private UUID productId;
+        private String thumbnailUrl;
+    }
+
+    /**
+     * A page of search results and, when requested, its facets, both read from one snapshot.
+     */
+    @Data
+    public static class SearchResult {
+        private Page<Response> page;
+        private Facets facets;
+    }
+
+    /**
+     * Facet counts for a search. Each facet ignores its own filter, so a category chip shows
+     * how many results selecting it would give under the other active filters.
+     */
+    @Data
+    public static class Facets {
+        private List<CategoryFacet> categories = new ArrayList<>();
+        private List<PriceBucket> priceBuckets = new ArrayList<>();
+        private List<RatingBucket> ratingBuckets = new ArrayList<>();
+    }
+
+    @Data
+    public static class CategoryFacet {
+        private UUID categoryId;
+        private String categoryName;
+        private long count;
+    }
+
+    @Data
+    public static class PriceBucket {
+        private BigDecimal minPrice; // inclusive, null for the first bucket
+        private BigDecimal maxPrice; // exclusive, null for the last bucket
+        private long count;
+    }
+
+    @Data
+    public static class RatingBucket {
+        private int minRating; // products rated at least this
+        private long count;
+    }
 }
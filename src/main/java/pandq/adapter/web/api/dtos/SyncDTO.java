@@ -0,0 +1,45 @@
+package pandq.adapter.web.api.dtos;
+
+import lombok.Data;
+import pandq.domain.models.enums.Status;
+import pandq.domain.models.enums.SyncEntityType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class SyncDTO {
+
+    /**
+     * Records changed after the requested version. Store {@code version} and pass it as
+     * {@code since} next time; keep paging while {@code hasMore} is true.
+     */
+    @Data
+    public static class Response {
+        private long version;
+        private boolean hasMore;
+        private List<AppConfigDTO.CategoryResponse> categories = new ArrayList<>();
+        private List<AppConfigDTO.LocationResponse> locations = new ArrayList<>();
+        private List<ProductItem> products = new ArrayList<>();
+        private List<DeletedItem> deleted = new ArrayList<>();
+    }
+
+    @Data
+    public static class ProductItem {
+        private UUID id;
+        private UUID categoryId;
+        private String name;
+        private BigDecimal price;
+        private String thumbnailUrl;
+        private Status status;
+        private Double averageRating;
+        private Integer reviewCount;
+    }
+
+    @Data
+    public static class DeletedItem {
+        private SyncEntityType type;
+        private UUID id;
+    }
+}
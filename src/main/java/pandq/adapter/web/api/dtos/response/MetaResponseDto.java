@@ -1,17 +1,24 @@
 package pandq.adapter.web.api.dtos.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
 
 public record MetaResponseDto(
         LocalDateTime timestamp,
-        PaginationMetaDto pagination
+        PaginationMetaDto pagination,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Object facets
 ) {
 
     public static MetaResponseDto of() {
-        return new MetaResponseDto(LocalDateTime.now(), null);
+        return new MetaResponseDto(LocalDateTime.now(), null, null);
     }
 
     public static MetaResponseDto of(PaginationMetaDto pagination) {
-        return new MetaResponseDto(LocalDateTime.now(), pagination);
+        return new MetaResponseDto(LocalDateTime.now(), pagination, null);
+    }
+
+    public static MetaResponseDto of(PaginationMetaDto pagination, Object facets) {
+        return new MetaResponseDto(LocalDateTime.now(), pagination, facets);
     }
 }
@@ -12,6 +12,10 @@ public record PaginationResponseDto<T>(List<T> data, MetaResponseDto meta, Strin
         return new PaginationResponseDto<>(data, MetaResponseDto.of(pagination), code, message);
     }
 
+    public static <T> PaginationResponseDto<T> of(List<T> data, PaginationMetaDto pagination, Object facets, String code, String message) {
+        return new PaginationResponseDto<>(data, MetaResponseDto.of(pagination, facets), code, message);
+    }
+
     public List<T> getData() {
         return data;
     }
@@ -4,5 +4,8 @@ public class ConflictException extends ApplicationException {
     public ConflictException(String resource, Object field, Object value) {
         super(String.format("%s already existed with the given input data %s: '%s'", resource, field.toString(), value.toString()));
     }
-}
 
+    public ConflictException(String message) {
+        super(message);
+    }
+}
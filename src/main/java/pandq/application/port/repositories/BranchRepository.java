@@ -2,6 +2,7 @@ package pandq.application.port.repositories;
 
 import pandq.domain.models.branch.Branch;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,5 +11,6 @@ public interface BranchRepository {
     Branch save(Branch branch);
     Optional<Branch> findById(UUID id);
     List<Branch> findAll();
+    List<Branch> findAllById(Collection<UUID> ids);
     void deleteById(UUID id);
 }
@@ -0,0 +1,16 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.cart.Cart;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CartRepository {
+    Optional<Cart> findByUserId(UUID userId);
+
+    /**
+     * Upsert carts with their items. A stored cart with a higher version is left untouched.
+     */
+    void saveAll(Collection<Cart> carts);
+}
@@ -2,6 +2,7 @@ package pandq.application.port.repositories;
 
 import pandq.domain.models.product.Category;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,6 +11,7 @@ public interface CategoryRepository {
     Category save(Category category);
     Optional<Category> findById(UUID id);
     List<Category> findAll();
+    List<Category> findAllById(Collection<UUID> ids);
     List<Category> findByParentId(UUID parentId);
     void deleteById(UUID id);
 }
@@ -0,0 +1,27 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.enums.IdempotencyScope;
+import pandq.domain.models.idempotency.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRepository {
+
+    /**
+     * Record the key as in progress until {@code lockedUntil}. Returns false if an unexpired record
+     * for the key already exists.
+     */
+    boolean claim(IdempotencyScope scope, String key, String requestHash, LocalDateTime now, LocalDateTime lockedUntil);
+
+    Optional<IdempotencyRecord> find(IdempotencyScope scope, String key, LocalDateTime now);
+
+    void complete(IdempotencyScope scope, String key, String responseBody, LocalDateTime expiresAt);
+
+    /**
+     * Drop an in-progress claim so the request can be retried.
+     */
+    void release(IdempotencyScope scope, String key);
+
+    int deleteExpired(LocalDateTime now, int batchSize);
+}
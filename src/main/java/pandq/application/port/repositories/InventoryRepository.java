@@ -1,8 +1,15 @@
 package pandq.application.port.repositories;
 
 import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.branch.InventoryLevel;
+import pandq.domain.models.branch.InventoryStats;
+import pandq.domain.models.branch.LowStockAlert;
+import pandq.domain.models.branch.ReservedQuantityCheck;
+import pandq.domain.models.branch.StockAllocation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,8 +17,78 @@ public interface InventoryRepository {
     Inventory save(Inventory inventory);
     Optional<Inventory> findById(UUID id);
     Optional<Inventory> findByBranchIdAndProductId(UUID branchId, UUID productId);
+
+    /**
+     * Set an existing row's stock and minimum with a targeted update, leaving reserved_quantity to the
+     * guarded reservation updates. Stock never drops below the row's current reservation, and a null
+     * minimum keeps the current one.
+     *
+     * @return a detached copy of the row as written
+     */
+    Inventory updateStockLevels(Inventory inventory, int quantity, Integer minStock);
+
     List<Inventory> findByBranchId(UUID branchId);
     List<Inventory> findByProductId(UUID productId);
+    Map<UUID, Integer> sumQuantityByProductIds(Collection<UUID> productIds);
+    Map<UUID, Integer> sumAvailableQuantityByProductIds(Collection<UUID> productIds);
     List<Inventory> findAll();
+
+    /**
+     * Stock totals, kept current by database triggers on every inventory and price change.
+     */
+    InventoryStats getStats();
+
+    /**
+     * Inventory rows of the products at branches of any status, with their unreserved stock.
+     */
+    List<InventoryLevel> findLevelsByProductIds(Collection<UUID> productIds);
+
+    /**
+     * Those of the given rows whose unreserved stock is below their minimum.
+     */
+    List<LowStockAlert> findLowStockAlerts(Collection<UUID> inventoryIds);
+
+    /**
+     * Reserve each allocation on its inventory row with a guarded update, so concurrent reservations
+     * cannot oversell. Rows are updated in inventory id order.
+     *
+     * @return allocations whose row no longer had enough unreserved stock
+     */
+    List<StockAllocation> reserve(List<StockAllocation> allocations);
+
+    /**
+     * Return allocated quantities to available stock.
+     */
+    void release(List<StockAllocation> allocations);
+
+    /**
+     * Ship allocated quantities: both stock and reserved quantity go down.
+     */
+    void complete(List<StockAllocation> allocations);
+
+    /**
+     * Release reservations made before allocations were recorded, from the product's most reserved row.
+     */
+    void releaseByProduct(Map<UUID, Integer> quantities);
+
+    /**
+     * Ship reservations made before allocations were recorded, from the product's most reserved row.
+     */
+    void completeByProduct(Map<UUID, Integer> quantities);
+
+    /**
+     * Up to {@code limit} rows after {@code afterId} in id order, each with the reservation its CONFIRMED and
+     * SHIPPING orders account for: allocated quantities on the row, plus unallocated lines of older orders
+     * on the product's most reserved row. Recorded and expected values come from one snapshot.
+     */
+    List<ReservedQuantityCheck> checkReservedQuantities(UUID afterId, int limit);
+
+    /**
+     * Set each row's reserved quantity to the expected value, only where it still holds the recorded one.
+     *
+     * @return the checks that were applied
+     */
+    List<ReservedQuantityCheck> correctReservedQuantities(List<ReservedQuantityCheck> checks);
+
     void deleteById(UUID id);
 }
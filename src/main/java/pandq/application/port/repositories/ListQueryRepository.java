@@ -0,0 +1,40 @@
+package pandq.application.port.repositories;
+
+import pandq.adapter.web.api.dtos.BranchDTO;
+import pandq.adapter.web.api.dtos.CategoryDTO;
+import pandq.adapter.web.api.dtos.InventoryDTO;
+import pandq.adapter.web.api.dtos.OrderDTO;
+import pandq.adapter.web.api.dtos.PromotionDTO;
+
+import pandq.domain.models.PaginatedResult;
+import pandq.domain.models.enums.OrderStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only list queries that select straight into response DTOs, bypassing the persistence context.
+ */
+public interface ListQueryRepository {
+    List<CategoryDTO.Response> findAllCategories();
+    List<BranchDTO.Response> findAllBranches();
+    List<PromotionDTO.Response> findAllPromotions();
+    List<OrderDTO.Response> findAllOrders();
+
+    /**
+     * Orders filtered by user and/or status (either may be null), newest first.
+     */
+    List<OrderDTO.Response> findOrders(UUID userId, OrderStatus status);
+
+    PaginatedResult<OrderDTO.Response> findOrderPage(OrderDTO.ListRequest request);
+
+    /**
+     * Inventory rows, optionally of one branch, in id order.
+     */
+    PaginatedResult<InventoryDTO.Response> findInventoryPage(UUID branchId, String cursor, Integer size);
+
+    /**
+     * Inventory rows whose unreserved stock is below their minimum, furthest below first.
+     */
+    PaginatedResult<InventoryDTO.Response> findLowStockPage(String cursor, Integer size);
+}
@@ -3,6 +3,7 @@ package pandq.application.port.repositories;
 import pandq.domain.models.enums.OrderStatus;
 import pandq.domain.models.order.Order;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +14,11 @@ public interface OrderRepository {
 
     Optional<Order> findById(UUID id);
 
+    /**
+     * Orders with their user, items and products, for changing many orders at once
+     */
+    List<Order> findAllWithItemsById(Collection<UUID> ids);
+
     List<Order> findAll();
 
     List<Order> findByUserId(UUID userId);
@@ -0,0 +1,16 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.order.OrderStatusHistory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderStatusHistoryRepository {
+    /**
+     * Insert history rows in one batch. Only the order id of each row's order is used.
+     */
+    void saveAll(Collection<OrderStatusHistory> history);
+
+    List<OrderStatusHistory> findByOrderId(UUID orderId);
+}
@@ -0,0 +1,18 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.product.ProductCoPurchase;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ProductCoPurchaseRepository {
+    List<ProductCoPurchase> findByProductIds(Collection<UUID> productIds);
+    List<UUID> findProductIdsInOrdersChangedSince(LocalDateTime since);
+    List<UUID> findAllCompletedOrderProductIds();
+    int deleteProductsWithoutCompletedOrders();
+    Optional<LocalDateTime> findLastComputedAt();
+    void recompute(Collection<UUID> productIds, int topN, LocalDateTime computedAt);
+}
@@ -0,0 +1,10 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.product.Product;
+
+import java.util.List;
+
+public interface ProductImportRepository {
+    void insertBatch(List<Product> products, List<Inventory> inventories);
+}
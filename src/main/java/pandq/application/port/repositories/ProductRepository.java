@@ -1,10 +1,17 @@
 package pandq.application.port.repositories;
 
 import org.springframework.data.domain.Page;
+import pandq.adapter.web.api.dtos.ProductDTO;
 import pandq.adapter.web.api.dtos.ProductSearchDTO;
+import pandq.domain.models.PaginatedResult;
 import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSearchHit;
+import pandq.domain.models.product.ProductSpecification;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,7 +19,13 @@ public interface ProductRepository {
     Product save(Product product);
     Optional<Product> findById(UUID id);
     List<Product> findAll();
+    List<Product> findAllById(Collection<UUID> ids);
     List<Product> findByCategoryId(UUID categoryId);
     void deleteById(UUID id);
-    Page<Product> search(ProductSearchDTO.SearchRequest request);
+    Page<ProductSearchHit> search(ProductSearchDTO.SearchRequest request);
+    ProductSearchDTO.Facets searchFacets(ProductSearchDTO.SearchRequest request);
+    PaginatedResult<Product> findListing(ProductDTO.ListingRequest request);
+    List<ProductImage> findImagesByProductIds(Collection<UUID> productIds);
+    List<ProductSpecification> findSpecificationsByProductIds(Collection<UUID> productIds);
+    Map<UUID, List<Product>> findRelatedProductsByProductIds(Collection<UUID> productIds);
 }
@@ -0,0 +1,5 @@
+package pandq.application.port.repositories;
+
+public interface ProductStatsRepository {
+    int refreshSalesWindowAndRanks();
+}
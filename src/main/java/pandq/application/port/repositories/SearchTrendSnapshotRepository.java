@@ -0,0 +1,10 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.search.SearchTrendSnapshot;
+
+import java.util.List;
+
+public interface SearchTrendSnapshotRepository {
+    List<SearchTrendSnapshot> findByWindowName(String windowName);
+    void replaceWindow(String windowName, List<SearchTrendSnapshot> snapshots);
+}
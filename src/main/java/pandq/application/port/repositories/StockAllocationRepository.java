@@ -0,0 +1,15 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.branch.StockAllocation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockAllocationRepository {
+    void saveAll(Collection<StockAllocation> allocations);
+
+    List<StockAllocation> findByOrderItemIds(Collection<UUID> orderItemIds);
+
+    void deleteByOrderItemIds(Collection<UUID> orderItemIds);
+}
@@ -0,0 +1,22 @@
+package pandq.application.port.repositories;
+
+import pandq.domain.models.enums.SyncEntityType;
+import pandq.domain.models.sync.SyncChange;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only changes of finished transactions are returned, so a client that has read up to a version
+ * never misses a change that commits later with a lower one.
+ */
+public interface SyncChangeRepository {
+    List<SyncChange> findChangesSince(long version, int limit);
+
+    /**
+     * All changes written by the transaction with this version.
+     */
+    List<SyncChange> findChangesAt(long version);
+
+    Map<SyncEntityType, Long> findLatestVersions();
+}
@@ -0,0 +1,29 @@
+package pandq.application.port.services;
+
+import pandq.domain.models.cart.Cart;
+
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * Where live carts are held between requests. The default implementation keeps them in process and
+ * writes them behind to the database; a shared store can replace it when running several instances.
+ */
+public interface CartStore {
+
+    /**
+     * The user's cart, empty if they have none.
+     */
+    Cart get(UUID userId);
+
+    /**
+     * Apply a change to the user's cart atomically and return the result.
+     * Concurrent updates of the same cart are serialized; the operation may be retried and must be side-effect free.
+     */
+    Cart update(UUID userId, UnaryOperator<Cart> operation);
+
+    /**
+     * Persist carts changed since the last flush. A store that writes through may do nothing here.
+     */
+    void flush();
+}
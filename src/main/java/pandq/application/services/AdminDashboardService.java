@@ -3,6 +3,7 @@ package pandq.application.services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import pandq.adapter.web.api.dtos.AdminDashboardDTO;
+import pandq.application.port.repositories.InventoryRepository;
 import pandq.domain.models.enums.OrderStatus;
 import pandq.domain.models.order.Order;
 import pandq.infrastructure.persistence.repositories.jpa.JpaOrderRepository;
@@ -20,6 +21,7 @@ public class AdminDashboardService {
 
     private final JpaOrderRepository orderRepository;
     private final JpaProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
 
     public AdminDashboardDTO.SummaryResponse getDashboardSummary() {
         List<Order> allOrders = orderRepository.findAll();
@@ -38,8 +40,8 @@ public class AdminDashboardService {
                 .filter(o -> o.getStatus() == OrderStatus.COMPLETED || o.getStatus() == OrderStatus.DELIVERED)
                 .count();
 
-        // Count total products as "inventory" indicator (no stock field available)
-        long lowStockAlerts = 0; // Simplified - no stock tracking in Product entity
+        // Inventory rows below their minimum stock, from the maintained counters
+        long lowStockAlerts = inventoryRepository.getStats().lowStockCount();
 
         // Get recent orders as activities
         List<AdminDashboardDTO.RecentActivityResponse> recentActivities = allOrders.stream()
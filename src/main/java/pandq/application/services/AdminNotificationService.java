@@ -4,11 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import pandq.domain.models.branch.LowStockAlert;
 import pandq.domain.models.enums.NotificationType;
 import pandq.infrastructure.services.FcmService;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service for sending notifications to Admin app.
@@ -23,6 +26,7 @@ public class AdminNotificationService {
     private final pandq.infrastructure.persistence.repositories.jpa.JpaAdminNotificationRepository notificationRepository;
 
     private static final String ADMIN_TOPIC = "admin_notifications";
+    private static final int LOW_STOCK_BATCH_LISTED = 5;
 
     /**
      * Notify admins about a new order.
@@ -51,6 +55,25 @@ public class AdminNotificationService {
         saveAndSend(title, body, NotificationType.LOW_STOCK, targetData);
     }
 
+    /**
+     * Notify admins about several low-stock products in one message.
+     */
+    @Async
+    public void notifyLowStockBatch(List<LowStockAlert> alerts) {
+        String title = String.format("⚠️ %d sản phẩm sắp hết hàng", alerts.size());
+        String body = alerts.stream()
+                .limit(LOW_STOCK_BATCH_LISTED)
+                .map(alert -> String.format("%s còn %d (ngưỡng: %d)",
+                        alert.productName(), alert.available(), alert.minStock()))
+                .collect(Collectors.joining(", "));
+        if (alerts.size() > LOW_STOCK_BATCH_LISTED) {
+            body += String.format(" và %d sản phẩm khác", alerts.size() - LOW_STOCK_BATCH_LISTED);
+        }
+        String targetData = "/inventory";
+
+        saveAndSend(title, body, NotificationType.LOW_STOCK, targetData);
+    }
+
     /**
      * Notify admins about payment received.
      */
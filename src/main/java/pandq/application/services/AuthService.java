@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.application.port.repositories.UserRepository;
 import pandq.domain.models.user.User;
+import pandq.domain.models.user.UserPrincipal;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +23,7 @@ import java.util.UUID;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final IdentityService identityService;
 
     /**
      * Get the Firebase UID of the currently authenticated user.
@@ -53,17 +55,15 @@ public class AuthService {
      * Get the currently authenticated user's ID.
      * @return User UUID or null if not found
      */
-    @Transactional(readOnly = true)
     public UUID getCurrentUserId() {
-        return getCurrentUser().map(User::getId).orElse(null);
+        return identityService.resolve(getCurrentFirebaseUid()).map(UserPrincipal::id).orElse(null);
     }
 
     /**
      * Get the currently authenticated user's email.
      * @return Email or null if not found
      */
-    @Transactional(readOnly = true)
     public String getCurrentUserEmail() {
-        return getCurrentUser().map(User::getEmail).orElse(null);
+        return identityService.resolve(getCurrentFirebaseUid()).map(UserPrincipal::email).orElse(null);
     }
 }
@@ -1,27 +1,29 @@
 package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.BranchDTO;
 import pandq.application.port.repositories.BranchRepository;
+import pandq.application.port.repositories.ListQueryRepository;
+import pandq.domain.events.BranchChangedEvent;
 import pandq.domain.models.branch.Branch;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BranchService {
 
     private final BranchRepository branchRepository;
+    private final ListQueryRepository listQueryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<BranchDTO.Response> getAllBranches() {
-        return branchRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return listQueryRepository.findAllBranches();
     }
 
     @Transactional(readOnly = true)
@@ -44,6 +46,7 @@ public class BranchService {
                 .build();
 
         Branch savedBranch = branchRepository.save(branch);
+        eventPublisher.publishEvent(new BranchChangedEvent(savedBranch.getId()));
         return mapToResponse(savedBranch);
     }
 
@@ -61,12 +64,14 @@ public class BranchService {
         branch.setStatus(request.getStatus());
 
         Branch savedBranch = branchRepository.save(branch);
+        eventPublisher.publishEvent(new BranchChangedEvent(savedBranch.getId()));
         return mapToResponse(savedBranch);
     }
 
     @Transactional
     public void deleteBranch(UUID id) {
         branchRepository.deleteById(id);
+        eventPublisher.publishEvent(new BranchChangedEvent(id));
     }
 
     private BranchDTO.Response mapToResponse(Branch branch) {
@@ -0,0 +1,193 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.adapter.web.api.dtos.OrderDTO;
+import pandq.application.port.repositories.ProductRepository;
+import pandq.application.port.services.CartStore;
+import pandq.domain.events.CartCheckedOutEvent;
+import pandq.domain.models.cart.Cart;
+import pandq.domain.models.enums.OrderStatus;
+import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.user.UserPrincipal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shopping carts. Cart operations only touch the {@link CartStore}; prices and product details are
+ * joined in when the cart is shown, and the cart becomes an order only at checkout.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartService {
+
+    private final CartStore cartStore;
+    private final ProductRepository productRepository;
+    private final IdentityService identityService;
+
+    @Transactional(readOnly = true)
+    public OrderDTO.Response getCart(String userId) {
+        UserPrincipal user = identityService.require(userId);
+        return toResponse(user, cartStore.get(user.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDTO.Response addToCart(OrderDTO.AddToCartRequest request) {
+        UserPrincipal user = identityService.require(request.getUserId());
+        UUID productId = parseProductId(request.getProductId());
+        int quantity = requirePositive(request.getQuantity());
+
+        Set<UUID> productIds = new HashSet<>(cartStore.get(user.id()).items().keySet());
+        productIds.add(productId);
+        Map<UUID, Product> products = loadProducts(productIds);
+        if (!products.containsKey(productId)) {
+            throw new RuntimeException("Product not found");
+        }
+
+        Cart cart = cartStore.update(user.id(), current -> current.withQuantityAdded(productId, quantity));
+        return toResponse(user, cart, products);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDTO.Response decreaseQuantity(OrderDTO.AddToCartRequest request) {
+        UserPrincipal user = identityService.require(request.getUserId());
+        UUID productId = parseProductId(request.getProductId());
+
+        Cart cart = cartStore.update(user.id(), current -> current.quantityOf(productId) > 0
+                ? current.withQuantityAdded(productId, -1)
+                : current);
+        return toResponse(user, cart);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDTO.Response removeFromCart(String userId, UUID productId) {
+        UserPrincipal user = identityService.require(userId);
+        Cart cart = cartStore.update(user.id(), current -> current.withoutItems(List.of(productId)));
+        return toResponse(user, cart);
+    }
+
+    /**
+     * Merge guest cart items into user's cart after login
+     * @param userId - User ID (Firebase UID or UUID string)
+     * @param guestCartItems - Items from guest cart
+     * @return - Merged cart with all items
+     */
+    @Transactional(readOnly = true)
+    public OrderDTO.Response mergeGuestCart(String userId, List<OrderDTO.AddToCartRequest> guestCartItems) {
+        UserPrincipal user = identityService.require(userId);
+
+        Map<UUID, Integer> guestQuantities = new LinkedHashMap<>();
+        for (OrderDTO.AddToCartRequest guestItem : guestCartItems) {
+            guestQuantities.merge(parseProductId(guestItem.getProductId()),
+                    requirePositive(guestItem.getQuantity()), Integer::sum);
+        }
+
+        Set<UUID> productIds = new HashSet<>(cartStore.get(user.id()).items().keySet());
+        productIds.addAll(guestQuantities.keySet());
+        Map<UUID, Product> products = loadProducts(productIds);
+        for (UUID productId : guestQuantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found: " + productId);
+            }
+        }
+
+        Cart cart = cartStore.update(user.id(), current -> current.withAllAdded(guestQuantities));
+        return toResponse(user, cart, products);
+    }
+
+    /**
+     * Current contents of a user's cart, for placing an order from it.
+     */
+    public Map<UUID, Integer> getItems(UUID userId) {
+        return cartStore.get(userId).items();
+    }
+
+    /**
+     * Drop the products of a placed order from the cart once the order has committed.
+     */
+    @TransactionalEventListener
+    public void onCartCheckedOut(CartCheckedOutEvent event) {
+        cartStore.update(event.userId(), current -> current.withoutItems(event.productIds()));
+    }
+
+    public void flush() {
+        cartStore.flush();
+    }
+
+    private OrderDTO.Response toResponse(UserPrincipal user, Cart cart) {
+        return toResponse(user, cart, loadProducts(cart.items().keySet()));
+    }
+
+    private OrderDTO.Response toResponse(UserPrincipal user, Cart cart, Map<UUID, Product> products) {
+        Map<UUID, String> imageUrls = new LinkedHashMap<>();
+        for (ProductImage image : productRepository.findImagesByProductIds(cart.items().keySet())) {
+            imageUrls.putIfAbsent(image.getProduct().getId(), image.getImageUrl());
+        }
+
+        List<OrderDTO.OrderItemResponse> items = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<UUID, Integer> line : cart.items().entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                // Product was deleted while in the cart
+                continue;
+            }
+            OrderDTO.OrderItemResponse item = new OrderDTO.OrderItemResponse();
+            item.setProductId(product.getId());
+            item.setProductName(product.getName());
+            item.setQuantity(line.getValue());
+            item.setPrice(product.getPrice());
+            item.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
+            item.setImageUrl(imageUrls.get(product.getId()));
+            items.add(item);
+            totalAmount = totalAmount.add(item.getTotalPrice());
+        }
+
+        // Same shape as an order so clients render the cart as before; the cart id is the user id
+        OrderDTO.Response response = new OrderDTO.Response();
+        response.setId(user.id());
+        response.setUserId(user.id().toString());
+        response.setCustomerName(user.displayName());
+        response.setCustomerPhone(user.phone());
+        response.setStatus(OrderStatus.PENDING);
+        response.setTotalAmount(totalAmount);
+        response.setShippingFee(BigDecimal.ZERO);
+        response.setDiscountAmount(BigDecimal.ZERO);
+        response.setFinalAmount(totalAmount);
+        response.setCreatedAt(cart.updatedAt());
+        response.setItems(items);
+        return response;
+    }
+
+    private Map<UUID, Product> loadProducts(Set<UUID> productIds) {
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private UUID parseProductId(String productId) {
+        try {
+            return UUID.fromString(productId);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Invalid product ID format: " + productId);
+        }
+    }
+
+    private int requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        return quantity;
+    }
+}
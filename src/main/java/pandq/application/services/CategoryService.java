@@ -5,23 +5,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.CategoryDTO;
 import pandq.application.port.repositories.CategoryRepository;
+import pandq.application.port.repositories.ListQueryRepository;
 import pandq.domain.models.product.Category;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ListQueryRepository listQueryRepository;
 
     @Transactional(readOnly = true)
     public List<CategoryDTO.Response> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return listQueryRepository.findAllCategories();
     }
 
     @Transactional(readOnly = true)
@@ -3,6 +3,7 @@ package pandq.application.services;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.CustomerDTO;
@@ -10,6 +11,7 @@ import pandq.application.port.repositories.OrderRepository;
 import pandq.application.port.repositories.UserRepository;
 import pandq.domain.enums.AccountStatus;
 import pandq.domain.enums.CustomerTier;
+import pandq.domain.events.UserChangedEvent;
 import pandq.domain.models.order.Order;
 import pandq.domain.models.user.User;
 
@@ -25,6 +27,7 @@ public class CustomerService {
         private final UserRepository userRepository;
         private final OrderRepository orderRepository;
         private final CustomerTierConfigService tierConfigService;
+        private final ApplicationEventPublisher eventPublisher;
 
         /**
          * Get paginated customer list with search and filters
@@ -132,6 +135,7 @@ public class CustomerService {
 
                 user.setAccountStatus(status);
                 userRepository.save(user);
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getFirebaseUid()));
         }
 
         /**
@@ -199,6 +203,7 @@ public class CustomerService {
                 user.setCustomerTier(tierConfigService.getTierFromSpent(totalSpent));
 
                 userRepository.save(user);
+                eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getFirebaseUid()));
                 log.info("Updated customer tier for {} to {} with total spent: {}", userId, user.getCustomerTier(),
                                 totalSpent);
         }
@@ -0,0 +1,145 @@
+package pandq.application.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pandq.application.exceptions.BadRequestException;
+import pandq.application.exceptions.ConflictException;
+import pandq.application.port.repositories.IdempotencyRepository;
+import pandq.domain.models.enums.IdempotencyScope;
+import pandq.domain.models.enums.IdempotencyStatus;
+import pandq.domain.models.idempotency.IdempotencyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per idempotency key (an Idempotency-Key header or a payment provider's
+ * transaction id). The first request claims the key and its response is stored; retries with the same
+ * key get the stored response back without running the action again.
+ * <p>
+ * The claim commits on its own, before the action runs. An action that throws releases the key so the
+ * request can be retried; a claim left behind by a crashed instance expires after the lock timeout.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long lockTimeoutMinutes;
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.lock-timeout-minutes:5}") long lockTimeoutMinutes) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.lockTimeoutMinutes = lockTimeoutMinutes;
+    }
+
+    /**
+     * Run {@code action} once for the key, or return the response stored by an earlier run.
+     * Without a key the action simply runs.
+     *
+     * @param request the request payload; a retry whose payload differs from the first one is rejected
+     */
+    public <T> T execute(IdempotencyScope scope, String key, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(request);
+        LocalDateTime now = LocalDateTime.now();
+        if (!idempotencyRepository.claim(scope, key, requestHash, now, now.plusMinutes(lockTimeoutMinutes))) {
+            return replay(scope, key, requestHash, responseType, now);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRepository.release(scope, key);
+            throw e;
+        }
+
+        try {
+            idempotencyRepository.complete(scope, key, toJson(response), LocalDateTime.now().plusHours(ttlHours));
+        } catch (RuntimeException e) {
+            // The action already took effect; the claim stays in progress until the lock timeout
+            log.error("Could not store response for {} key {}: {}", scope, key, e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Delete expired keys in batches. Returns the number of keys deleted.
+     */
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyRepository.deleteExpired(now, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    private <T> T replay(IdempotencyScope scope, String key, String requestHash,
+                         Class<T> responseType, LocalDateTime now) {
+        IdempotencyRecord existing = idempotencyRepository.find(scope, key, now)
+                .orElseThrow(() -> new ConflictException("Previous request with this idempotency key did not complete, please retry"));
+        if (!Objects.equals(existing.requestHash(), requestHash)) {
+            throw new ConflictException("Idempotency key was already used for a different request");
+        }
+        if (existing.status() == IdempotencyStatus.IN_PROGRESS) {
+            throw new ConflictException("Request with this idempotency key is still being processed");
+        }
+
+        log.info("Replaying stored response for {} key {}", scope, key);
+        try {
+            return objectMapper.readValue(existing.responseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored response", e);
+        }
+    }
+
+    private String hash(Object request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            byte[] payload = request instanceof String text
+                    ? text.getBytes(StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(payload));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to hash request", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize response", e);
+        }
+    }
+}
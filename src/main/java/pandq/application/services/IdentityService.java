@@ -0,0 +1,59 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import pandq.domain.models.user.User;
+import pandq.domain.models.user.UserPrincipal;
+import pandq.infrastructure.cache.UserPrincipalCache;
+import pandq.infrastructure.persistence.repositories.jpa.JpaUserRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the user identifiers clients send (Firebase UID or user UUID) to a cached principal,
+ * so working out who the caller is costs no SQL once the user has been seen.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdentityService {
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final JpaUserRepository userRepository;
+
+    public Optional<UserPrincipal> resolve(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<UserPrincipal> cached = userPrincipalCache.get(userId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        // Try Firebase UID first, then UUID
+        long loadedAt = userPrincipalCache.generation();
+        Optional<User> user = userRepository.findByFirebaseUid(userId);
+        if (user.isEmpty()) {
+            try {
+                user = userRepository.findById(UUID.fromString(userId));
+            } catch (IllegalArgumentException e) {
+                // Not a valid UUID
+            }
+        }
+
+        Optional<UserPrincipal> principal = user.map(UserPrincipal::of);
+        principal.ifPresent(found -> userPrincipalCache.put(found, loadedAt));
+        return principal;
+    }
+
+    public UserPrincipal require(String userId) {
+        return resolve(userId).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Reference to the user entity for setting associations, without loading it.
+     */
+    public User reference(UserPrincipal principal) {
+        return userRepository.getReferenceById(principal.id());
+    }
+}
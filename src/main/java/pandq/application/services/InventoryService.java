@@ -1,35 +1,46 @@
 package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import pandq.adapter.web.api.dtos.InventoryDTO;
 import pandq.application.port.repositories.BranchRepository;
 import pandq.application.port.repositories.InventoryRepository;
+import pandq.application.port.repositories.ListQueryRepository;
 import pandq.application.port.repositories.ProductRepository;
+import pandq.domain.events.LowStockEvent;
+import pandq.domain.events.ProductChangedEvent;
+import pandq.domain.models.PaginatedResult;
 import pandq.domain.models.branch.Branch;
 import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.branch.InventoryStats;
+import pandq.domain.models.branch.LowStockAlert;
+import pandq.domain.models.branch.ReservedQuantityCheck;
 import pandq.domain.models.product.Product;
-import pandq.domain.models.order.Order;
-import pandq.infrastructure.persistence.repositories.jpa.JpaInventoryRepository;
-import pandq.infrastructure.persistence.repositories.jpa.JpaOrderRepository;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InventoryService {
 
+    private static final int LOW_STOCK_PREVIEW_SIZE = 20;
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
     private final InventoryRepository inventoryRepository;
     private final BranchRepository branchRepository;
     private final ProductRepository productRepository;
-    private final JpaInventoryRepository jpaInventoryRepository;
-    private final JpaOrderRepository jpaOrderRepository;
+    private final ListQueryRepository listQueryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional(readOnly = true)
     public List<InventoryDTO.Response> getInventoryByBranch(UUID branchId) {
@@ -45,35 +56,31 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PaginatedResult<InventoryDTO.Response> getInventoryPage(UUID branchId, String cursor, Integer size) {
+        return listQueryRepository.findInventoryPage(branchId, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResult<InventoryDTO.Response> getLowStockPage(String cursor, Integer size) {
+        return listQueryRepository.findLowStockPage(cursor, size);
+    }
+
+    /**
+     * Totals come from the trigger-maintained inventory_stats rows, so this costs the same however
+     * large the inventory is; only the first page of low-stock rows is included.
+     */
     @Transactional(readOnly = true)
     public InventoryDTO.StatsResponse getInventoryStats() {
-        List<Inventory> allInventory = inventoryRepository.findAll();
-        
+        InventoryStats totals = inventoryRepository.getStats();
+        PaginatedResult<InventoryDTO.Response> lowStock = listQueryRepository.findLowStockPage(null, LOW_STOCK_PREVIEW_SIZE);
+
         InventoryDTO.StatsResponse stats = new InventoryDTO.StatsResponse();
-        
-        // Calculate total inventory value (handle null prices)
-        BigDecimal totalValue = allInventory.stream()
-                .filter(inv -> inv.getProduct() != null && inv.getProduct().getPrice() != null)
-                .map(inv -> inv.getProduct().getPrice().multiply(BigDecimal.valueOf(inv.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalInventoryValue(totalValue);
-        
-        // Total products in stock
-        int totalInStock = allInventory.stream()
-                .mapToInt(Inventory::getQuantity)
-                .sum();
-        stats.setTotalProductsInStock(totalInStock);
-        
-        // Low stock items (quantity < 10)
-        List<Inventory> lowStock = allInventory.stream()
-                .filter(inv -> inv.getQuantity() < 10)
-                .collect(Collectors.toList());
-        stats.setLowStockCount(lowStock.size());
-        stats.setLowStockItems(lowStock.stream().map(this::mapToResponse).collect(Collectors.toList()));
-        
-        // All items
-        stats.setAllItems(allInventory.stream().map(this::mapToResponse).collect(Collectors.toList()));
-        
+        stats.setTotalInventoryValue(totals.totalValue());
+        stats.setTotalProductsInStock(totals.unitsInStock());
+        stats.setLowStockCount(totals.lowStockCount());
+        stats.setLowStockItems(lowStock.getData());
+        stats.setLowStockNextCursor(lowStock.getPagination().getNextCursor());
         return stats;
     }
 
@@ -82,12 +89,22 @@ public class InventoryService {
         Inventory inventory = inventoryRepository.findByBranchIdAndProductId(branchId, productId)
                 .orElseGet(() -> createNewInventory(branchId, productId));
 
-        inventory.setQuantity(request.getQuantity());
-        if (request.getMinStock() != null) {
-            inventory.setMinStock(request.getMinStock());
+        boolean wasLow = inventory.getId() != null && LowStockAlert.isLow(inventory);
+        Inventory savedInventory;
+        if (inventory.getId() != null) {
+            // The loaded entity is never saved back: its reserved_quantity may already be stale
+            savedInventory = inventoryRepository.updateStockLevels(inventory, request.getQuantity(), request.getMinStock());
+        } else {
+            inventory.setQuantity(request.getQuantity());
+            if (request.getMinStock() != null) {
+                inventory.setMinStock(request.getMinStock());
+            }
+            savedInventory = inventoryRepository.save(inventory);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
+        if (!wasLow && LowStockAlert.isLow(savedInventory)) {
+            eventPublisher.publishEvent(new LowStockEvent(List.of(LowStockAlert.of(savedInventory))));
         }
-
-        Inventory savedInventory = inventoryRepository.save(inventory);
         return mapToResponse(savedInventory);
     }
 
@@ -107,92 +124,61 @@ public class InventoryService {
     }
 
     /**
-     * Reserve inventory when order is confirmed (payment successful)
-     * Increases reservedQuantity for each item in the order
+     * Bring reserved quantities back in line with the CONFIRMED and SHIPPING orders, for rows changed by
+     * direct DB updates or seed data that bypassed the order state machine.
+     * Rows are checked in chunks, each in a short transaction of its own; only drifted rows are written,
+     * and a row a reservation touched in the meantime is left for the next run.
      */
-    @Transactional
-    public void reserveInventoryForOrder(UUID productId, int quantity) {
-        List<Inventory> inventories = inventoryRepository.findByProductId(productId);
-        if (!inventories.isEmpty()) {
-            Inventory inventory = inventories.get(0);
-            int currentReserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
-            inventory.setReservedQuantity(currentReserved + quantity);
-            inventoryRepository.save(inventory);
+    public InventoryDTO.ReconciliationResponse reconcileReservedQuantities() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int checked = 0;
+        List<ReservedQuantityCheck> corrected = new ArrayList<>();
+        UUID afterId = new UUID(0, 0);
+
+        while (true) {
+            List<ReservedQuantityCheck> chunk = inventoryRepository.checkReservedQuantities(afterId, RECONCILE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            checked += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).inventoryId();
+
+            List<ReservedQuantityCheck> drifted = chunk.stream().filter(ReservedQuantityCheck::drifted).toList();
+            if (!drifted.isEmpty()) {
+                List<ReservedQuantityCheck> applied = transactionTemplate.execute(status -> {
+                    List<ReservedQuantityCheck> result = inventoryRepository.correctReservedQuantities(drifted);
+                    if (!result.isEmpty()) {
+                        eventPublisher.publishEvent(new ProductChangedEvent(
+                                result.stream().map(ReservedQuantityCheck::productId).collect(Collectors.toSet())));
+                    }
+                    return result;
+                });
+                corrected.addAll(applied);
+            }
+            if (chunk.size() < RECONCILE_CHUNK_SIZE) {
+                break;
+            }
         }
-    }
 
-    /**
-     * Complete order inventory - when order is delivered/completed
-     * Decreases both quantity (actual stock) and reservedQuantity
-     */
-    @Transactional
-    public void completeOrderInventory(UUID productId, int quantity) {
-        List<Inventory> inventories = inventoryRepository.findByProductId(productId);
-        if (!inventories.isEmpty()) {
-            Inventory inventory = inventories.get(0);
-            
-            // Decrease actual stock
-            int currentQuantity = inventory.getQuantity() != null ? inventory.getQuantity() : 0;
-            inventory.setQuantity(Math.max(0, currentQuantity - quantity));
-            
-            // Decrease reserved quantity
-            int currentReserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
-            inventory.setReservedQuantity(Math.max(0, currentReserved - quantity));
-            
-            inventoryRepository.save(inventory);
+        for (ReservedQuantityCheck drift : corrected) {
+            log.warn("Corrected reserved quantity of inventory {} (product {}) from {} to {}",
+                    drift.inventoryId(), drift.productId(), drift.recorded(), drift.expected());
         }
-    }
 
-    /**
-     * Cancel order inventory - when order is cancelled
-     * Only decreases reservedQuantity (returns items to available stock)
-     */
-    @Transactional
-    public void cancelOrderInventory(UUID productId, int quantity) {
-        List<Inventory> inventories = inventoryRepository.findByProductId(productId);
-        if (!inventories.isEmpty()) {
-            Inventory inventory = inventories.get(0);
-            int currentReserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
-            inventory.setReservedQuantity(Math.max(0, currentReserved - quantity));
-            inventoryRepository.save(inventory);
-        }
+        InventoryDTO.ReconciliationResponse response = new InventoryDTO.ReconciliationResponse();
+        response.setRowsChecked(checked);
+        response.setRowsCorrected(corrected.size());
+        response.setDrifts(corrected.stream().map(this::mapToDriftResponse).collect(Collectors.toList()));
+        return response;
     }
 
-    /**
-     * Recalculate and sync reserved quantities based on actual active orders.
-     * This is useful when data becomes inconsistent due to direct DB updates
-     * or seed data that bypasses the order status change logic.
-     * 
-     * Active orders = CONFIRMED or SHIPPING status (orders that have inventory reserved)
-     * 
-     * @return Number of inventory items that were corrected
-     */
-    @Transactional
-    public int recalculateReservedQuantities() {
-        // Step 1: Reset all reserved quantities to 0
-        jpaInventoryRepository.resetAllReservedQuantities();
-        
-        // Step 2: Get all active orders (CONFIRMED or SHIPPING)
-        List<Order> activeOrders = jpaOrderRepository.findActiveOrdersWithReservedInventory();
-        
-        // Step 3: Calculate total reserved quantity per product
-        Map<UUID, Integer> productReservedMap = new HashMap<>();
-        for (Order order : activeOrders) {
-            for (var item : order.getOrderItems()) {
-                UUID productId = item.getProduct().getId();
-                int quantity = item.getQuantity();
-                productReservedMap.merge(productId, quantity, Integer::sum);
-            }
-        }
-        
-        // Step 4: Update reserved quantities for products with active orders
-        int correctedCount = 0;
-        for (Map.Entry<UUID, Integer> entry : productReservedMap.entrySet()) {
-            jpaInventoryRepository.updateReservedQuantityByProductId(entry.getKey(), entry.getValue());
-            correctedCount++;
-        }
-        
-        return correctedCount;
+    private InventoryDTO.DriftResponse mapToDriftResponse(ReservedQuantityCheck check) {
+        InventoryDTO.DriftResponse response = new InventoryDTO.DriftResponse();
+        response.setInventoryId(check.inventoryId());
+        response.setProductId(check.productId());
+        response.setRecordedReserved(check.recorded());
+        response.setExpectedReserved(check.expected());
+        return response;
     }
 
     private InventoryDTO.Response mapToResponse(Inventory inventory) {
@@ -0,0 +1,74 @@
+package pandq.application.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.domain.events.LowStockEvent;
+import pandq.domain.models.branch.LowStockAlert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns low-stock crossings into admin notifications without flooding admins during a sale.
+ * Crossings are collected per product once their transaction commits, and {@link #flush()} sends
+ * everything collected since the last run as one message. A product that was just reported is not
+ * reported again until the cooldown has passed; its latest crossing stays pending and goes out with
+ * the first flush after the cooldown.
+ */
+@Service
+public class LowStockAlertService {
+
+    private final AdminNotificationService adminNotificationService;
+    private final Duration cooldown;
+
+    private final ConcurrentHashMap<UUID, LowStockAlert> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Instant> lastAlerted = new ConcurrentHashMap<>();
+
+    public LowStockAlertService(AdminNotificationService adminNotificationService,
+                                @Value("${app.inventory.low-stock.cooldown-minutes:30}") long cooldownMinutes) {
+        this.adminNotificationService = adminNotificationService;
+        this.cooldown = Duration.ofMinutes(cooldownMinutes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLowStock(LowStockEvent event) {
+        // The latest crossing of a product replaces earlier ones not yet sent
+        event.alerts().forEach(alert -> pending.put(alert.productId(), alert));
+    }
+
+    /**
+     * Send the crossings collected since the last flush, except for products still in their cooldown.
+     *
+     * @return number of products reported
+     */
+    public int flush() {
+        Instant now = Instant.now();
+        List<LowStockAlert> batch = new ArrayList<>();
+        for (UUID productId : pending.keySet()) {
+            Instant last = lastAlerted.get(productId);
+            if (last != null && last.plus(cooldown).isAfter(now)) {
+                continue;
+            }
+            LowStockAlert alert = pending.remove(productId);
+            if (alert == null) {
+                continue;
+            }
+            lastAlerted.put(productId, now);
+            batch.add(alert);
+        }
+        lastAlerted.values().removeIf(alertedAt -> !alertedAt.plus(cooldown).isAfter(now));
+
+        if (batch.size() == 1) {
+            LowStockAlert alert = batch.get(0);
+            adminNotificationService.notifyLowStock(alert.productName(), alert.available(), alert.minStock());
+        } else if (batch.size() > 1) {
+            adminNotificationService.notifyLowStockBatch(batch);
+        }
+        return batch.size();
+    }
+}
@@ -1,86 +1,89 @@
 package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.OrderDTO;
+import pandq.application.exceptions.BadRequestException;
+import pandq.application.port.repositories.InventoryRepository;
+import pandq.application.port.repositories.ListQueryRepository;
 import pandq.application.port.repositories.OrderRepository;
+import pandq.application.port.repositories.OrderStatusHistoryRepository;
 import pandq.application.port.repositories.ProductRepository;
+import pandq.domain.events.CartCheckedOutEvent;
+import pandq.domain.models.PaginatedResult;
 import pandq.domain.models.enums.OrderStatus;
 import pandq.domain.models.enums.PaymentMethod;
 import pandq.domain.models.order.Order;
 import pandq.domain.models.order.OrderItem;
 import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
 import pandq.domain.models.user.User;
+import pandq.domain.models.user.UserPrincipal;
 import pandq.domain.models.marketing.Promotion;
-import pandq.infrastructure.persistence.repositories.jpa.JpaUserRepository;
+import pandq.domain.models.marketing.UserVoucher;
 import pandq.infrastructure.persistence.repositories.jpa.JpaPromotionRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_BULK_STATUS_ORDERS = 500;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
-    private final JpaUserRepository userRepository;
+    private final IdentityService identityService;
     private final AdminNotificationService adminNotificationService;
     private final ShippingCalculatorService shippingCalculatorService;
     private final VoucherService voucherService;
     private final JpaPromotionRepository promotionRepository;
-    private final InventoryService inventoryService;
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListQueryRepository listQueryRepository;
+    private final CartService cartService;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderStatusHistoryRepository orderStatusHistoryRepository;
 
     @Transactional(readOnly = true)
     public List<OrderDTO.Response> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return listQueryRepository.findAllOrders();
     }
 
-    @Transactional(readOnly = true)
     public List<OrderDTO.Response> getOrdersByUserId(String userId) {
-        System.out.println("=== DEBUG: getOrdersByUserId called with userId: " + userId);
-
-        // Try to find user by Firebase UID first
-        User user = userRepository.findByFirebaseUid(userId).orElse(null);
-        System.out.println("=== DEBUG: User found by Firebase UID: "
-                + (user != null ? user.getId() + " - " + user.getEmail() : "null"));
-
-        // If not found, try as UUID
-        if (user == null) {
-            try {
-                UUID userUUID = UUID.fromString(userId);
-                user = userRepository.findById(userUUID).orElse(null);
-                System.out.println("=== DEBUG: User found by UUID: "
-                        + (user != null ? user.getId() + " - " + user.getEmail() : "null"));
-            } catch (IllegalArgumentException e) {
-                // Not a valid UUID, user not found
-                System.out.println("=== DEBUG: Invalid UUID format");
-                return new ArrayList<>();
-            }
-        }
-
-        if (user == null) {
-            System.out.println("=== DEBUG: No user found, returning empty list");
-            return new ArrayList<>();
-        }
+        return identityService.resolve(userId)
+                .map(user -> listQueryRepository.findOrders(user.id(), null))
+                .orElseGet(ArrayList::new);
+    }
 
-        List<Order> orders = orderRepository.findByUserId(user.getId());
-        System.out.println("=== DEBUG: Found " + orders.size() + " orders for user " + user.getId());
-        for (Order o : orders) {
-            System.out.println("=== DEBUG: Order ID: " + o.getId() + ", Status: " + o.getStatus() + ", Items: "
-                    + o.getOrderItems().size());
-        }
+    /**
+     * A user's order history one keyset page at a time, newest first
+     */
+    public PaginatedResult<OrderDTO.Response> getOrderHistory(String userId, OrderDTO.ListRequest request) {
+        UserPrincipal user = identityService.require(userId);
+        request.setUserId(user.id());
+        return listQueryRepository.findOrderPage(request);
+    }
 
-        return orders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * All orders (optionally of one status) one keyset page at a time, newest first
+     */
+    public PaginatedResult<OrderDTO.Response> getOrderPage(OrderDTO.ListRequest request) {
+        request.setUserId(null);
+        return listQueryRepository.findOrderPage(request);
     }
 
     @Transactional(readOnly = true)
@@ -92,49 +95,71 @@ public class OrderService {
 
     @Transactional
     public OrderDTO.Response createOrder(OrderDTO.CreateRequest request) {
-        User user = null;
-        if (request.getUserId() != null) {
-            // Try to find user by Firebase UID first
-            user = userRepository.findByFirebaseUid(request.getUserId())
-                    .orElse(null);
-
-            // If not found, try as UUID
-            if (user == null) {
-                try {
-                    UUID userId = UUID.fromString(request.getUserId());
-                    user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-                } catch (IllegalArgumentException e) {
-                    throw new RuntimeException("Invalid user ID format");
-                }
-            }
-        } else {
+        if (request.getUserId() == null) {
             // TODO: get user from Security Context
             // For now throw error if no user ID
             throw new RuntimeException("User ID is required");
         }
+        UserPrincipal user = identityService.require(request.getUserId());
 
         Order order = new Order();
-        order.setUser(user);
+        order.setUser(identityService.reference(user));
         order.setShippingAddress(request.getShippingAddress());
         order.setNote(request.getNote());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
 
+        // Without explicit items the order is placed from the user's cart
+        List<OrderDTO.OrderItemRequest> itemRequests = request.getItems();
+        boolean fromCart = itemRequests == null || itemRequests.isEmpty();
+        if (fromCart) {
+            itemRequests = cartService.getItems(user.id()).entrySet().stream()
+                    .map(entry -> {
+                        OrderDTO.OrderItemRequest itemRequest = new OrderDTO.OrderItemRequest();
+                        itemRequest.setProductId(entry.getKey());
+                        itemRequest.setQuantity(entry.getValue());
+                        return itemRequest;
+                    })
+                    .collect(Collectors.toList());
+            if (itemRequests.isEmpty()) {
+                throw new RuntimeException("Cart is empty");
+            }
+        }
+
+        // Merge repeated lines, then load every product and its stock in one query each
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderDTO.OrderItemRequest itemRequest : itemRequests) {
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for product: " + itemRequest.getProductId());
+            }
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        Map<UUID, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<UUID, Integer> availableStock = inventoryRepository.sumAvailableQuantityByProductIds(quantities.keySet());
+
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
 
-        for (OrderDTO.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
+        for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + line.getKey());
+            }
+            // Products without inventory records are not stock-tracked
+            Integer available = availableStock.get(product.getId());
+            if (available != null && available < line.getValue()) {
+                throw new RuntimeException("Not enough stock for product: " + product.getName());
+            }
 
+            // Price is snapshotted on the line so later price changes do not alter the order
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .product(product)
-                    .quantity(itemRequest.getQuantity())
+                    .quantity(line.getValue())
                     .price(product.getPrice())
-                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())))
+                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())))
                     .build();
 
             orderItems.add(orderItem);
@@ -151,22 +176,16 @@ public class OrderService {
                 totalAmount
         );
         order.setShippingFee(shippingResult.getShippingFee());
-        order.setShippingFee(shippingResult.getShippingFee());
         
-        // Apply voucher if provided
+        // Apply voucher if provided; the loaded voucher is reused to mark it used below
         BigDecimal discountAmount = BigDecimal.ZERO;
+        UserVoucher voucher = null;
         if (request.getPromotionId() != null) {
-            String userIdForVoucher = user != null ? user.getId().toString() : request.getUserId();
-            discountAmount = voucherService.applyVoucher(
-                userIdForVoucher, 
-                request.getPromotionId(), 
-                totalAmount, 
-                shippingResult.getShippingFee()
-            );
+            voucher = voucherService.findUsableVoucher(user.id(), request.getPromotionId());
+            discountAmount = voucherService.calculateDiscount(voucher, totalAmount, shippingResult.getShippingFee());
             
             // Store the promotion reference on the order for payment callback to mark as used
-            Promotion promotion = promotionRepository.findById(request.getPromotionId()).orElse(null);
-            order.setPromotion(promotion);
+            order.setPromotion(voucher.getPromotion());
         }
         
         order.setDiscountAmount(discountAmount);
@@ -181,30 +200,43 @@ public class OrderService {
         Order savedOrder = orderRepository.save(order);
         
         // Mark voucher as used if order created successfully
-        if (request.getPromotionId() != null) {
-            String userIdForVoucher = user != null ? user.getId().toString() : request.getUserId();
-            voucherService.markVoucherAsUsed(userIdForVoucher, request.getPromotionId());
+        if (voucher != null) {
+            voucherService.markVoucherAsUsed(voucher);
         }
         
+        // Products ordered from the cart leave it once the order commits; explicit items leave the cart alone
+        if (fromCart) {
+            eventPublisher.publishEvent(new CartCheckedOutEvent(user.id(), orderItems.stream()
+                    .map(item -> item.getProduct().getId())
+                    .collect(Collectors.toSet())));
+        }
+
         // Notify admins about new order (async)
         adminNotificationService.notifyNewOrder(
                 savedOrder.getId(),
-                user.getFullName(),
+                user.fullName(),
                 totalAmount
         );
         
-        return mapToResponse(savedOrder);
+        Map<UUID, String> imageUrls = new HashMap<>();
+        for (ProductImage image : productRepository.findImagesByProductIds(products.keySet())) {
+            imageUrls.putIfAbsent(image.getProduct().getId(), image.getImageUrl());
+        }
+        return mapToResponse(savedOrder, user, product -> imageUrls.get(product.getId()));
     }
 
     private OrderDTO.Response mapToResponse(Order order) {
+        return mapToResponse(order, UserPrincipal.of(order.getUser()), this::firstImageUrl);
+    }
+
+    private OrderDTO.Response mapToResponse(Order order, UserPrincipal customer, Function<Product, String> imageUrl) {
         OrderDTO.Response response = new OrderDTO.Response();
         response.setId(order.getId());
-        response.setUserId(order.getUser().getId().toString());
+        response.setUserId(customer.id().toString());
         
         // Lấy thông tin khách hàng từ User
-        User user = order.getUser();
-        response.setCustomerName(user.getFullName() != null ? user.getFullName() : user.getEmail());
-        response.setCustomerPhone(user.getPhone());
+        response.setCustomerName(customer.displayName());
+        response.setCustomerPhone(customer.phone());
         
         response.setTotalAmount(order.getTotalAmount());
         response.setShippingFee(order.getShippingFee());
@@ -217,14 +249,7 @@ public class OrderService {
         response.setTrackingNumber(order.getTrackingNumber());
         response.setCreatedAt(order.getCreatedAt());
 
-        // Deduplicate order items by ID (Hibernate may return duplicates due to
-        // cartesian product)
-        java.util.LinkedHashMap<UUID, OrderItem> uniqueItemsMap = new java.util.LinkedHashMap<>();
-        for (OrderItem item : order.getOrderItems()) {
-            uniqueItemsMap.putIfAbsent(item.getId(), item);
-        }
-
-        List<OrderDTO.OrderItemResponse> items = uniqueItemsMap.values().stream()
+        List<OrderDTO.OrderItemResponse> items = order.getOrderItems().stream()
                 .map(item -> {
                     OrderDTO.OrderItemResponse itemResponse = new OrderDTO.OrderItemResponse();
                     itemResponse.setProductId(item.getProduct().getId());
@@ -232,11 +257,7 @@ public class OrderService {
                     itemResponse.setQuantity(item.getQuantity());
                     itemResponse.setPrice(item.getPrice());
                     itemResponse.setTotalPrice(item.getTotalPrice());
-                    // Get the first product image URL if available
-                    String imageUrl = item.getProduct().getImages() != null && !item.getProduct().getImages().isEmpty()
-                            ? item.getProduct().getImages().get(0).getImageUrl()
-                            : null;
-                    itemResponse.setImageUrl(imageUrl);
+                    itemResponse.setImageUrl(imageUrl.apply(item.getProduct()));
                     return itemResponse;
                 })
                 .collect(Collectors.toList());
@@ -245,6 +266,15 @@ public class OrderService {
         return response;
     }
 
+    /**
+     * The first product image URL if available
+     */
+    private String firstImageUrl(Product product) {
+        return product.getImages() != null && !product.getImages().isEmpty()
+                ? product.getImages().get(0).getImageUrl()
+                : null;
+    }
+
     /**
      * Apply a promotion/voucher to an existing order before payment
      */
@@ -281,288 +311,6 @@ public class OrderService {
         return mapToResponse(order);
     }
 
-    @Transactional
-    public OrderDTO.Response addToCart(OrderDTO.AddToCartRequest request) {
-        // Try to find user by Firebase UID first
-        User user = userRepository.findByFirebaseUid(request.getUserId())
-                .orElse(null);
-
-        // If not found, try as UUID
-        if (user == null) {
-            try {
-                UUID userId = UUID.fromString(request.getUserId());
-                user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid user ID format");
-            }
-        }
-
-        Product product = productRepository.findById(UUID.fromString(request.getProductId()))
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        // Find or create a PENDING order (cart) for the user
-        List<Order> pendingOrders = orderRepository.findByUserIdAndStatus(user.getId(), OrderStatus.PENDING);
-        Order cart;
-
-        if (pendingOrders.isEmpty()) {
-            // Create new cart
-            cart = new Order();
-            cart.setUser(user);
-            cart.setStatus(OrderStatus.PENDING);
-            cart.setCreatedAt(LocalDateTime.now());
-            cart.setTotalAmount(BigDecimal.ZERO);
-            cart.setShippingFee(BigDecimal.ZERO);
-            cart.setDiscountAmount(BigDecimal.ZERO);
-            cart.setFinalAmount(BigDecimal.ZERO);
-            cart.setOrderItems(new ArrayList<>());
-        } else {
-            // Use existing cart
-            cart = pendingOrders.get(0);
-        }
-
-        // Check if product already exists in cart
-        UUID productUUID = UUID.fromString(request.getProductId());
-        OrderItem existingItem = cart.getOrderItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productUUID))
-                .findFirst()
-                .orElse(null);
-
-        if (existingItem != null) {
-            // Update quantity
-            existingItem.setQuantity(existingItem.getQuantity() + request.getQuantity());
-            existingItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(existingItem.getQuantity())));
-        } else {
-            // Add new item
-            OrderItem newItem = OrderItem.builder()
-                    .order(cart)
-                    .product(product)
-                    .quantity(request.getQuantity())
-                    .price(product.getPrice())
-                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity())))
-                    .build();
-            cart.getOrderItems().add(newItem);
-        }
-
-        // Recalculate totals
-        BigDecimal totalAmount = cart.getOrderItems().stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalAmount(totalAmount);
-        cart.setFinalAmount(totalAmount);
-
-        Order savedCart = orderRepository.save(cart);
-        return mapToResponse(savedCart);
-    }
-
-    @Transactional(readOnly = true)
-    public OrderDTO.Response getCart(String userId) {
-        // Try to find user by Firebase UID first
-        User user = userRepository.findByFirebaseUid(userId)
-                .orElse(null);
-
-        // If not found, try as UUID
-        UUID userUUID = null;
-        if (user == null) {
-            try {
-                userUUID = UUID.fromString(userId);
-                user = userRepository.findById(userUUID)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid user ID format");
-            }
-        }
-
-        List<Order> pendingOrders = orderRepository.findByUserIdAndStatus(user.getId(), OrderStatus.PENDING);
-        if (pendingOrders.isEmpty()) {
-            // Return empty cart
-            Order emptyCart = new Order();
-            emptyCart.setId(UUID.randomUUID());
-            emptyCart.setUser(user);
-            emptyCart.setStatus(OrderStatus.PENDING);
-            emptyCart.setOrderItems(new ArrayList<>());
-            emptyCart.setTotalAmount(BigDecimal.ZERO);
-            emptyCart.setFinalAmount(BigDecimal.ZERO);
-            emptyCart.setShippingFee(BigDecimal.ZERO);
-            emptyCart.setDiscountAmount(BigDecimal.ZERO);
-            return mapToResponse(emptyCart);
-        }
-        return mapToResponse(pendingOrders.get(0));
-    }
-
-    @Transactional
-    public OrderDTO.Response decreaseQuantity(OrderDTO.AddToCartRequest request) {
-        User user = userRepository.findByFirebaseUid(request.getUserId())
-                .orElse(null);
-
-        UUID userUUID = null;
-        if (user == null) {
-            try {
-                userUUID = UUID.fromString(request.getUserId());
-                user = userRepository.findById(userUUID)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid user ID format");
-            }
-        }
-
-        List<Order> pendingOrders = orderRepository.findByUserIdAndStatus(user.getId(), OrderStatus.PENDING);
-        if (pendingOrders.isEmpty()) {
-            throw new RuntimeException("Cart not found");
-        }
-
-        Order cart = pendingOrders.get(0);
-        UUID productUUID = UUID.fromString(request.getProductId());
-        Product product = productRepository.findById(productUUID)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        OrderItem existingItem = cart.getOrderItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productUUID))
-                .findFirst()
-                .orElse(null);
-
-        if (existingItem != null) {
-            if (existingItem.getQuantity() > 1) {
-                existingItem.setQuantity(existingItem.getQuantity() - 1);
-                existingItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(existingItem.getQuantity())));
-            } else {
-                cart.getOrderItems().remove(existingItem);
-            }
-        }
-
-        // Recalculate totals
-        BigDecimal totalAmount = cart.getOrderItems().stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalAmount(totalAmount);
-        cart.setFinalAmount(totalAmount);
-
-        Order savedCart = orderRepository.save(cart);
-        return mapToResponse(savedCart);
-    }
-
-    @Transactional
-    public OrderDTO.Response removeFromCart(String userId, UUID productId) {
-        User user = userRepository.findByFirebaseUid(userId)
-                .orElse(null);
-
-        if (user == null) {
-            try {
-                UUID userUUID = UUID.fromString(userId);
-                user = userRepository.findById(userUUID)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid user ID format");
-            }
-        }
-
-        List<Order> pendingOrders = orderRepository.findByUserIdAndStatus(user.getId(), OrderStatus.PENDING);
-        if (pendingOrders.isEmpty()) {
-            throw new RuntimeException("Cart not found");
-        }
-
-        Order cart = pendingOrders.get(0);
-        cart.getOrderItems().removeIf(item -> item.getProduct().getId().equals(productId));
-
-        // Recalculate totals
-        BigDecimal totalAmount = cart.getOrderItems().stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cart.setTotalAmount(totalAmount);
-        cart.setFinalAmount(totalAmount);
-
-        Order savedCart = orderRepository.save(cart);
-        return mapToResponse(savedCart);
-    }
-
-    /**
-     * Merge guest cart items into user's cart after login
-     * @param userId - User ID (Firebase UID or UUID string)
-     * @param guestCartItems - Items from guest cart
-     * @return - Merged cart with all items
-     */
-    @Transactional
-    public OrderDTO.Response mergeGuestCart(String userId, List<OrderDTO.AddToCartRequest> guestCartItems) {
-        // Find user
-        User user = userRepository.findByFirebaseUid(userId)
-                .orElse(null);
-
-        if (user == null) {
-            try {
-                UUID userUUID = UUID.fromString(userId);
-                user = userRepository.findById(userUUID)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid user ID format");
-            }
-        }
-
-        // Get or create user's cart
-        List<Order> pendingOrders = orderRepository.findByUserIdAndStatus(user.getId(), OrderStatus.PENDING);
-        Order userCart;
-
-        if (pendingOrders.isEmpty()) {
-            // Create new cart for user
-            userCart = new Order();
-            userCart.setUser(user);
-            userCart.setStatus(OrderStatus.PENDING);
-            userCart.setCreatedAt(LocalDateTime.now());
-            userCart.setTotalAmount(BigDecimal.ZERO);
-            userCart.setShippingFee(BigDecimal.ZERO);
-            userCart.setDiscountAmount(BigDecimal.ZERO);
-            userCart.setFinalAmount(BigDecimal.ZERO);
-            userCart.setOrderItems(new ArrayList<>());
-        } else {
-            userCart = pendingOrders.get(0);
-        }
-
-        // Merge guest cart items into user cart
-        for (OrderDTO.AddToCartRequest guestItem : guestCartItems) {
-            // Convert productId string to UUID
-            UUID productUUID;
-            try {
-                productUUID = UUID.fromString(guestItem.getProductId());
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException("Invalid product ID format: " + guestItem.getProductId());
-            }
-
-            Product product = productRepository.findById(productUUID)
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + productUUID));
-
-            // Check if product already exists in user's cart
-            OrderItem existingItem = userCart.getOrderItems().stream()
-                    .filter(item -> item.getProduct().getId().equals(productUUID))
-                    .findFirst()
-                    .orElse(null);
-
-            if (existingItem != null) {
-                // Update quantity - add guest quantity to existing quantity
-                existingItem.setQuantity(existingItem.getQuantity() + guestItem.getQuantity());
-                existingItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(existingItem.getQuantity())));
-            } else {
-                // Add new item from guest cart
-                OrderItem newItem = OrderItem.builder()
-                        .order(userCart)
-                        .product(product)
-                        .quantity(guestItem.getQuantity())
-                        .price(product.getPrice())
-                        .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(guestItem.getQuantity())))
-                        .build();
-                userCart.getOrderItems().add(newItem);
-            }
-        }
-
-        // Recalculate totals
-        BigDecimal totalAmount = userCart.getOrderItems().stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        userCart.setTotalAmount(totalAmount);
-        userCart.setFinalAmount(totalAmount);
-
-        Order savedCart = orderRepository.save(userCart);
-        return mapToResponse(savedCart);
-    }
-
     // ==================== Shipping Management ====================
 
     /**
@@ -572,9 +320,7 @@ public class OrderService {
     public List<OrderDTO.Response> getOrdersByStatus(String status) {
         try {
             OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            return orderRepository.findByStatus(orderStatus).stream()
-                    .map(this::mapToResponse)
-                    .collect(Collectors.toList());
+            return listQueryRepository.findOrders(null, orderStatus);
         } catch (IllegalArgumentException e) {
             // Return all orders if status is "ALL"
             if ("ALL".equalsIgnoreCase(status)) {
@@ -599,7 +345,8 @@ public class OrderService {
 
         // Auto-update status to CONFIRMED if it was PENDING
         if (order.getStatus() == OrderStatus.PENDING) {
-            order.setStatus(OrderStatus.CONFIRMED);
+            orderStateMachine.transition(order, OrderStatus.CONFIRMED,
+                    "Assigned to " + request.getShippingProvider(), OrderStateMachine.ACTOR_ADMIN);
         }
 
         Order savedOrder = orderRepository.save(order);
@@ -614,7 +361,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
-        order.setStatus(request.getStatus());
+        orderStateMachine.transition(order, request.getStatus(), null, OrderStateMachine.ACTOR_ADMIN);
         Order savedOrder = orderRepository.save(order);
         return mapToResponse(savedOrder);
     }
@@ -633,13 +380,14 @@ public class OrderService {
         }
         
         // Update status to COMPLETED
-        order.setStatus(OrderStatus.COMPLETED);
+        orderStateMachine.transition(order, OrderStatus.COMPLETED, "Delivery confirmed by customer",
+                OrderStateMachine.ACTOR_CUSTOMER);
         Order savedOrder = orderRepository.save(order);
         return mapToResponse(savedOrder);
     }
     
     /**
-     * Update order status and handle inventory accordingly
+     * Update order status. Stock follows the status in the same transaction:
      * - CONFIRMED: Reserve inventory (increase reservedQuantity)
      * - DELIVERED/COMPLETED: Decrease actual stock and reserved quantity
      * - CANCELLED: Release reserved inventory
@@ -648,60 +396,78 @@ public class OrderService {
     public OrderDTO.Response updateOrderStatus(UUID orderId, OrderStatus newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
-        
-        OrderStatus currentStatus = order.getStatus();
-        
-        // Update inventory based on status transition
-        if (newStatus == OrderStatus.CONFIRMED && currentStatus == OrderStatus.PENDING) {
-            // Order confirmed - reserve inventory
-            for (OrderItem item : order.getOrderItems()) {
-                inventoryService.reserveInventoryForOrder(
-                    item.getProduct().getId(),
-                    item.getQuantity()
-                );
-            }
-        } else if ((newStatus == OrderStatus.DELIVERED || newStatus == OrderStatus.COMPLETED) 
-                   && currentStatus != OrderStatus.DELIVERED && currentStatus != OrderStatus.COMPLETED) {
-            // Order delivered/completed - decrease actual stock
-            for (OrderItem item : order.getOrderItems()) {
-                inventoryService.completeOrderInventory(
-                    item.getProduct().getId(),
-                    item.getQuantity()
-                );
-            }
-        } else if (newStatus == OrderStatus.CANCELLED && currentStatus != OrderStatus.CANCELLED) {
-            // Order cancelled - release reserved inventory
-            for (OrderItem item : order.getOrderItems()) {
-                inventoryService.cancelOrderInventory(
-                    item.getProduct().getId(),
-                    item.getQuantity()
-                );
-            }
-        }
-        
-        order.setStatus(newStatus);
+
+        orderStateMachine.transition(order, newStatus, null, OrderStateMachine.ACTOR_ADMIN);
         Order savedOrder = orderRepository.save(order);
         return mapToResponse(savedOrder);
-    }        
+    }
+
+    /**
+     * Move many orders to one status in a single transaction; if any of them cannot make the
+     * transition, none of them change.
+     */
+    @Transactional
+    public OrderDTO.BulkStatusResponse bulkUpdateStatus(OrderDTO.BulkStatusRequest request) {
+        if (request.getOrderIds() == null || request.getOrderIds().isEmpty()) {
+            throw new BadRequestException("Order ids are required");
+        }
+        Set<UUID> orderIds = new LinkedHashSet<>(request.getOrderIds());
+        if (orderIds.size() > MAX_BULK_STATUS_ORDERS) {
+            throw new BadRequestException("At most " + MAX_BULK_STATUS_ORDERS + " orders can be updated at once");
+        }
+
+        List<Order> orders = orderRepository.findAllWithItemsById(orderIds);
+        if (orders.size() != orderIds.size()) {
+            Set<UUID> missing = new LinkedHashSet<>(orderIds);
+            orders.forEach(order -> missing.remove(order.getId()));
+            throw new RuntimeException("Order not found: " + missing);
+        }
+
+        List<Order> changed = orderStateMachine.transitionAll(
+                orders, request.getStatus(), request.getDescription(), OrderStateMachine.ACTOR_ADMIN);
+
+        OrderDTO.BulkStatusResponse response = new OrderDTO.BulkStatusResponse();
+        response.setStatus(request.getStatus());
+        response.setUpdatedOrderIds(changed.stream().map(Order::getId).toList());
+        Set<UUID> unchanged = new LinkedHashSet<>(orderIds);
+        response.getUpdatedOrderIds().forEach(unchanged::remove);
+        response.setUnchangedOrderIds(new ArrayList<>(unchanged));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO.StatusHistoryResponse> getStatusHistory(UUID orderId) {
+        return orderStatusHistoryRepository.findByOrderId(orderId).stream()
+                .map(entry -> {
+                    OrderDTO.StatusHistoryResponse response = new OrderDTO.StatusHistoryResponse();
+                    response.setStatus(entry.getStatus());
+                    response.setDescription(entry.getDescription());
+                    response.setCreatedBy(entry.getCreatedBy());
+                    response.setCreatedAt(entry.getCreatedAt());
+                    return response;
+                })
+                .toList();
+    }
 
     /**
      * Xác nhận đơn hàng với phương thức COD (Thanh toán khi nhận hàng)
      * - Set payment method to COD
      * - Lấy địa chỉ giao hàng từ User default address nếu chưa có
      * - Tính shipping fee dựa trên địa chỉ
-     * - Chuyển status sang PENDING để Admin xử lý
+     * - Đơn phải đang ở PENDING để Admin xử lý; đơn ở trạng thái khác bị từ chối
      */
     @Transactional
     public OrderDTO.Response confirmCODOrder(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
+        // Chỉ đơn PENDING mới được xác nhận COD; đơn đã xử lý bị từ chối thay vì bị đưa về PENDING
+        orderStateMachine.transition(order, OrderStatus.PENDING, null,
+                OrderStateMachine.ACTOR_CUSTOMER);
+
         // Set payment method to COD
         order.setPaymentMethod(PaymentMethod.COD);
         
-        // Chuyển status sang PENDING (chờ Admin gán đơn vị vận chuyển)
-        order.setStatus(OrderStatus.PENDING);
-        
         // Lấy và lưu địa chỉ giao hàng từ User nếu chưa có
         if (order.getShippingAddress() == null || order.getShippingAddress().isEmpty()) {
             User user = order.getUser();
@@ -773,7 +539,7 @@ public class OrderService {
 
     /**
      * [TEST ONLY] Simulate thanh toán thành công
-     * Chuyển đơn hàng từ CART hoặc bất kỳ status nào sang PENDING
+     * Đơn hàng phải đang ở PENDING; đơn ở trạng thái khác bị từ chối
      * Đồng thời tính và apply shipping fee dựa trên địa chỉ
      */
     @Transactional
@@ -781,8 +547,9 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
-        // Chuyển status sang PENDING (chờ Admin gán đơn vị vận chuyển)
-        order.setStatus(OrderStatus.PENDING);
+        // Chỉ đơn PENDING; đơn đã xử lý bị từ chối thay vì bị đưa về PENDING
+        orderStateMachine.transition(order, OrderStatus.PENDING, null,
+                OrderStateMachine.ACTOR_SYSTEM);
         
         // Tính shipping fee dựa trên địa chỉ nếu chưa có
         if (order.getShippingFee() == null || order.getShippingFee().compareTo(java.math.BigDecimal.ZERO) == 0) {
@@ -0,0 +1,163 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pandq.application.exceptions.BadRequestException;
+import pandq.application.port.repositories.OrderRepository;
+import pandq.application.port.repositories.OrderStatusHistoryRepository;
+import pandq.domain.events.OrderStatusChangedEvent;
+import pandq.domain.models.enums.OrderStatus;
+import pandq.domain.models.order.Order;
+import pandq.domain.models.order.OrderStatusHistory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The one place order statuses change. Transitions are checked against {@link #TRANSITIONS}, which also
+ * says how each one moves stock. Stock is reserved, released or shipped for the whole batch of orders
+ * through {@link StockAllocationService}, in the same transaction as the status change, so either all of it applies or none does. Each change
+ * appends an order_status_history row, and the remaining side effects run from
+ * {@link OrderStatusChangedEvent} after commit.
+ * <p>
+ * Moving an order to the status it already has is a no-op, so retried requests are harmless.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStateMachine {
+
+    public static final String ACTOR_SYSTEM = "SYSTEM";
+    public static final String ACTOR_ADMIN = "ADMIN";
+    public static final String ACTOR_CUSTOMER = "CUSTOMER";
+
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private enum StockEffect {
+        NONE,
+        RESERVE,
+        RELEASE,
+        COMPLETE
+    }
+
+    private static final Map<OrderStatus, Map<OrderStatus, StockEffect>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : OrderStatus.values()) {
+            TRANSITIONS.put(status, new EnumMap<>(OrderStatus.class));
+        }
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, StockEffect.RESERVE);
+        allow(OrderStatus.PENDING, OrderStatus.CANCELLED, StockEffect.NONE);
+        allow(OrderStatus.PENDING, OrderStatus.FAILED, StockEffect.NONE);
+        allow(OrderStatus.CONFIRMED, OrderStatus.SHIPPING, StockEffect.NONE);
+        allow(OrderStatus.CONFIRMED, OrderStatus.DELIVERED, StockEffect.COMPLETE);
+        allow(OrderStatus.CONFIRMED, OrderStatus.CANCELLED, StockEffect.RELEASE);
+        allow(OrderStatus.SHIPPING, OrderStatus.DELIVERED, StockEffect.COMPLETE);
+        allow(OrderStatus.SHIPPING, OrderStatus.CANCELLED, StockEffect.RELEASE);
+        allow(OrderStatus.DELIVERED, OrderStatus.COMPLETED, StockEffect.NONE);
+        allow(OrderStatus.DELIVERED, OrderStatus.RETURNED, StockEffect.NONE);
+        allow(OrderStatus.COMPLETED, OrderStatus.RETURNED, StockEffect.NONE);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus to, StockEffect stockEffect) {
+        TRANSITIONS.get(from).put(to, stockEffect);
+    }
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository orderStatusHistoryRepository;
+    private final StockAllocationService stockAllocationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return from == to || (from != null && TRANSITIONS.get(from).containsKey(to));
+    }
+
+    /**
+     * Load an order and move it to {@code target} in a transaction of its own, for callers outside one.
+     */
+    @Transactional
+    public Order transition(UUID orderId, OrderStatus target, String description, String actor) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        transition(order, target, description, actor);
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Move one order to {@code target} within the caller's transaction. The caller saves the order.
+     */
+    @Transactional
+    public boolean transition(Order order, OrderStatus target, String description, String actor) {
+        return !transitionAll(List.of(order), target, description, actor).isEmpty();
+    }
+
+    /**
+     * Move all orders to {@code target}, or none of them if any transition is not allowed.
+     * Orders are changed in place; callers hold managed entities, so the changes are flushed on commit.
+     *
+     * @return the orders whose status actually changed
+     */
+    @Transactional
+    public List<Order> transitionAll(Collection<Order> orders, OrderStatus target, String description, String actor) {
+        if (target == null) {
+            throw new BadRequestException("Order status is required");
+        }
+        for (Order order : orders) {
+            if (!canTransition(order.getStatus(), target)) {
+                throw new BadRequestException("Cannot change order " + order.getId()
+                        + " from " + order.getStatus() + " to " + target);
+            }
+        }
+
+        List<Order> changed = new ArrayList<>();
+        List<OrderStatusHistory> history = new ArrayList<>();
+        List<OrderStatusChangedEvent.Change> changes = new ArrayList<>();
+        Map<StockEffect, List<Order>> stock = new EnumMap<>(StockEffect.class);
+        String historyDescription = description != null && description.length() > MAX_DESCRIPTION_LENGTH
+                ? description.substring(0, MAX_DESCRIPTION_LENGTH)
+                : description;
+
+        for (Order order : orders) {
+            OrderStatus from = order.getStatus();
+            if (from == target) {
+                continue;
+            }
+            StockEffect stockEffect = TRANSITIONS.get(from).get(target);
+            if (stockEffect != StockEffect.NONE) {
+                stock.computeIfAbsent(stockEffect, effect -> new ArrayList<>()).add(order);
+            }
+            order.setStatus(target);
+            changed.add(order);
+
+            history.add(OrderStatusHistory.builder()
+                    .order(order)
+                    .status(target)
+                    .description(historyDescription)
+                    .createdBy(actor)
+                    .build());
+            changes.add(new OrderStatusChangedEvent.Change(
+                    order.getId(),
+                    order.getUser().getId(),
+                    order.getUser().getFullName(),
+                    order.getFinalAmount() != null ? order.getFinalAmount() : order.getTotalAmount(),
+                    order.getPaymentMethod(),
+                    from,
+                    target));
+        }
+
+        if (!changed.isEmpty()) {
+            // Throws if any product lacks stock, rolling back every status change above
+            stockAllocationService.reserve(stock.getOrDefault(StockEffect.RESERVE, List.of()));
+            stockAllocationService.release(stock.getOrDefault(StockEffect.RELEASE, List.of()));
+            stockAllocationService.complete(stock.getOrDefault(StockEffect.COMPLETE, List.of()));
+            orderStatusHistoryRepository.saveAll(history);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(changes));
+        }
+        return changed;
+    }
+}
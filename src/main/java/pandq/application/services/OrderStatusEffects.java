@@ -0,0 +1,124 @@
+package pandq.application.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pandq.domain.events.OrderStatusChangedEvent;
+import pandq.domain.models.enums.NotificationType;
+import pandq.domain.models.enums.OrderStatus;
+import pandq.domain.models.enums.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Side effects of order status changes, run once per committed batch of changes:
+ * customer notifications, one admin notification for newly confirmed orders and tier updates
+ * for customers whose spending changed. A failing effect is logged and does not affect the others.
+ */
+@Slf4j
+@Service
+public class OrderStatusEffects {
+
+    // Statuses whose orders count towards a customer's total spent
+    private static final Set<OrderStatus> SPENDING_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+
+    private final NotificationService notificationService;
+    private final AdminNotificationService adminNotificationService;
+    private final CustomerService customerService;
+    private final TransactionTemplate tierTransaction;
+
+    public OrderStatusEffects(NotificationService notificationService,
+                              AdminNotificationService adminNotificationService,
+                              CustomerService customerService,
+                              PlatformTransactionManager transactionManager) {
+        this.notificationService = notificationService;
+        this.adminNotificationService = adminNotificationService;
+        this.customerService = customerService;
+        // The order transaction has already committed, so tier updates need a transaction of their own
+        this.tierTransaction = new TransactionTemplate(transactionManager);
+        this.tierTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        List<OrderStatusChangedEvent.Change> newOrders = new ArrayList<>();
+        Set<UUID> spendingChanged = new LinkedHashSet<>();
+
+        for (OrderStatusChangedEvent.Change change : event.changes()) {
+            notifyCustomer(change);
+            if (change.to() == OrderStatus.CONFIRMED && change.paymentMethod() != PaymentMethod.COD) {
+                // COD orders were announced when the customer placed them
+                newOrders.add(change);
+            }
+            if (SPENDING_STATUSES.contains(change.from()) != SPENDING_STATUSES.contains(change.to())) {
+                spendingChanged.add(change.userId());
+            }
+        }
+
+        notifyAdmins(newOrders);
+        for (UUID userId : spendingChanged) {
+            try {
+                tierTransaction.executeWithoutResult(status -> customerService.updateCustomerSpendingAndTier(userId));
+            } catch (RuntimeException e) {
+                log.error("Failed to update spending and tier for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private void notifyCustomer(OrderStatusChangedEvent.Change change) {
+        String orderId = change.orderId().toString();
+        String orderIdShort = orderId.substring(orderId.length() - 8).toUpperCase();
+        String title;
+        String body;
+        switch (change.to()) {
+            case CONFIRMED -> {
+                if (change.paymentMethod() == PaymentMethod.COD) {
+                    title = "Đơn hàng đã được xác nhận";
+                    body = "Đơn hàng #" + orderIdShort + " đã được xác nhận và đang được chuẩn bị.";
+                } else {
+                    title = "Thanh toán thành công!";
+                    body = "Đơn hàng #" + orderIdShort + " đã được thanh toán thành công. Cảm ơn bạn đã mua sắm tại PandQ!";
+                }
+            }
+            case SHIPPING -> {
+                title = "Đơn hàng đang được giao";
+                body = "Đơn hàng #" + orderIdShort + " đã được giao cho đơn vị vận chuyển.";
+            }
+            case DELIVERED -> {
+                title = "Giao hàng thành công";
+                body = "Đơn hàng #" + orderIdShort + " đã được giao. Vui lòng xác nhận đã nhận hàng.";
+            }
+            case CANCELLED -> {
+                title = "Đơn hàng đã bị hủy";
+                body = "Đơn hàng #" + orderIdShort + " đã bị hủy.";
+            }
+            default -> {
+                return;
+            }
+        }
+        notificationService.createNotificationAsync(
+                change.userId(),
+                NotificationType.ORDER_UPDATE,
+                title,
+                body,
+                "pandq://orders/" + orderId);
+    }
+
+    private void notifyAdmins(List<OrderStatusChangedEvent.Change> newOrders) {
+        if (newOrders.size() == 1) {
+            OrderStatusChangedEvent.Change change = newOrders.get(0);
+            adminNotificationService.notifyNewOrder(change.orderId(), change.customerName(), change.amount());
+        } else if (newOrders.size() > 1) {
+            adminNotificationService.sendAdminAlert("Đơn hàng mới",
+                    newOrders.size() + " đơn hàng đã được thanh toán và xác nhận");
+        }
+    }
+}
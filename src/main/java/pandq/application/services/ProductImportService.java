@@ -0,0 +1,370 @@
+package pandq.application.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pandq.adapter.web.api.dtos.ProductDTO;
+import pandq.adapter.web.api.dtos.ProductImportDTO;
+import pandq.application.port.repositories.BranchRepository;
+import pandq.application.port.repositories.CategoryRepository;
+import pandq.application.port.repositories.ProductImportRepository;
+import pandq.domain.models.branch.Branch;
+import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.enums.Status;
+import pandq.domain.models.product.Category;
+import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSpecification;
+import pandq.infrastructure.cache.BranchLocationCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk product import from NDJSON or CSV.
+ *
+ * Rows are parsed and validated one line at a time and written in chunks of CHUNK_SIZE,
+ * each chunk as JDBC batches in its own transaction. Invalid rows are reported and skipped;
+ * a failing chunk is reported and the import continues with the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductImportRepository productImportRepository;
+    private final CategoryRepository categoryRepository;
+    private final BranchRepository branchRepository;
+    private final BranchLocationCache branchLocationCache;
+    private final ProductSuggestionService productSuggestionService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, ProductImportDTO.Report> runningImports = new ConcurrentHashMap<>();
+
+    public List<ProductImportDTO.Report> getRunningImports() {
+        return new ArrayList<>(runningImports.values());
+    }
+
+    public ProductImportDTO.Report importProducts(InputStream input, String format) {
+        ProductImportDTO.Report report = new ProductImportDTO.Report();
+        report.setImportId(UUID.randomUUID());
+        report.setFormat(format);
+        report.setStatus("RUNNING");
+        report.setStartedAt(LocalDateTime.now());
+        runningImports.put(report.getImportId(), snapshot(report));
+
+        // Reference data is small, so it is loaded once instead of looked up per row
+        Map<UUID, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<UUID, Branch> branches = branchRepository.findAll().stream()
+                .collect(Collectors.toMap(Branch::getId, Function.identity()));
+        // Rows without a branch go where the product form puts stock: the first shipping branch by name
+        Branch defaultBranch = branchLocationCache.get().defaultBranchId().map(branches::get).orElse(null);
+
+        Chunk chunk = new Chunk();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> csvHeader = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (FORMAT_CSV.equals(format) && csvHeader == null) {
+                    csvHeader = parseCsvLine(line).stream()
+                            .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                            .collect(Collectors.toList());
+                    continue;
+                }
+
+                report.setTotalRows(report.getTotalRows() + 1);
+                try {
+                    ProductImportDTO.Row row = FORMAT_CSV.equals(format)
+                            ? toRow(csvHeader, parseCsvLine(line))
+                            : objectMapper.readValue(line, ProductImportDTO.Row.class);
+                    chunk.add(lineNumber, row, categories, branches, defaultBranch);
+                } catch (JsonProcessingException e) {
+                    rejectRow(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    rejectRow(report, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= CHUNK_SIZE) {
+                    flush(chunk, report);
+                }
+            }
+            flush(chunk, report);
+            report.setStatus("COMPLETED");
+        } catch (IOException | RuntimeException e) {
+            // Chunks committed so far stay in place; the report tells the caller where it stopped
+            log.error("Product import {} failed", report.getImportId(), e);
+            report.setStatus("FAILED");
+            report.setFailureMessage(e.getMessage());
+        } finally {
+            report.setFinishedAt(LocalDateTime.now());
+            runningImports.remove(report.getImportId());
+        }
+
+        log.info("Product import {} {}: {} imported, {} failed of {} rows", report.getImportId(),
+                report.getStatus(), report.getImportedRows(), report.getFailedRows(), report.getTotalRows());
+        return report;
+    }
+
+    private void flush(Chunk chunk, ProductImportDTO.Report report) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> productImportRepository.insertBatch(chunk.products, chunk.inventories));
+            report.setImportedRows(report.getImportedRows() + chunk.size());
+            report.setCommittedChunks(report.getCommittedChunks() + 1);
+            productSuggestionService.indexProducts(chunk.products);
+        } catch (DataAccessException e) {
+            log.warn("Product import {} chunk starting at line {} failed", report.getImportId(), chunk.firstLine, e);
+            report.setFailedRows(report.getFailedRows() + chunk.size());
+            addError(report, chunk.firstLine, "Chunk of " + chunk.size() + " rows rejected: "
+                    + e.getMostSpecificCause().getMessage());
+        }
+        chunk.clear();
+        runningImports.put(report.getImportId(), snapshot(report));
+    }
+
+    private void rejectRow(ProductImportDTO.Report report, long line, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        addError(report, line, message);
+    }
+
+    private void addError(ProductImportDTO.Report report, long line, String message) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(ProductImportDTO.RowError.of(line, message));
+        }
+    }
+
+    /**
+     * Rows of the chunk being built, already validated and converted.
+     */
+    private static class Chunk {
+        private final List<Product> products = new ArrayList<>(CHUNK_SIZE);
+        private final List<Inventory> inventories = new ArrayList<>();
+        private long firstLine;
+
+        void add(long line, ProductImportDTO.Row row, Map<UUID, Category> categories,
+                 Map<UUID, Branch> branches, Branch defaultBranch) {
+            if (row.getName() == null || row.getName().isBlank()) {
+                throw new IllegalArgumentException("Name is required");
+            }
+            if (row.getPrice() == null || row.getPrice().signum() < 0) {
+                throw new IllegalArgumentException("Price is required and must not be negative");
+            }
+            if (row.getCategoryId() == null || !categories.containsKey(row.getCategoryId())) {
+                throw new IllegalArgumentException("Category not found: " + row.getCategoryId());
+            }
+            Branch branch = null;
+            if (row.getStockQuantity() != null && row.getStockQuantity() > 0) {
+                branch = row.getBranchId() != null ? branches.get(row.getBranchId()) : defaultBranch;
+                if (branch == null) {
+                    throw new IllegalArgumentException(row.getBranchId() != null
+                            ? "Branch not found: " + row.getBranchId()
+                            : "No branch found to add inventory");
+                }
+            }
+
+            Product product = Product.builder()
+                    .id(UUID.randomUUID())
+                    .category(categories.get(row.getCategoryId()))
+                    .name(row.getName().trim())
+                    .description(row.getDescription())
+                    .price(row.getPrice())
+                    .costPrice(row.getCostPrice())
+                    .thumbnailUrl(row.getThumbnailUrl())
+                    .status(row.getStatus() != null ? row.getStatus() : Status.ACTIVE)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+
+            List<ProductImage> images = new ArrayList<>();
+            if (row.getImages() != null) {
+                for (int i = 0; i < row.getImages().size(); i++) {
+                    images.add(ProductImage.builder()
+                            .product(product)
+                            .imageUrl(row.getImages().get(i))
+                            .displayOrder(i)
+                            .build());
+                }
+            }
+            product.setImages(images);
+
+            List<ProductSpecification> specifications = new ArrayList<>();
+            if (row.getSpecifications() != null) {
+                for (ProductDTO.ProductSpecificationDTO spec : row.getSpecifications()) {
+                    if (spec.getSpecKey() == null || spec.getSpecValue() == null) {
+                        throw new IllegalArgumentException("Specification key and value are required");
+                    }
+                    specifications.add(ProductSpecification.builder()
+                            .product(product)
+                            .specKey(spec.getSpecKey())
+                            .specValue(spec.getSpecValue())
+                            .build());
+                }
+            }
+            product.setSpecifications(specifications);
+
+            if (products.isEmpty()) {
+                firstLine = line;
+            }
+            products.add(product);
+            if (branch != null) {
+                inventories.add(Inventory.builder()
+                        .branch(branch)
+                        .product(product)
+                        .quantity(row.getStockQuantity())
+                        .minStock(0)
+                        .reservedQuantity(0)
+                        .build());
+            }
+        }
+
+        int size() {
+            return products.size();
+        }
+
+        void clear() {
+            products.clear();
+            inventories.clear();
+        }
+    }
+
+    private ProductImportDTO.Row toRow(List<String> header, List<String> values) {
+        if (header == null) {
+            throw new IllegalArgumentException("Missing CSV header");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                fields.put(header.get(i), value);
+            }
+        }
+
+        ProductImportDTO.Row row = new ProductImportDTO.Row();
+        row.setName(fields.get("name"));
+        row.setDescription(fields.get("description"));
+        row.setThumbnailUrl(fields.get("thumbnail_url"));
+        if (fields.containsKey("category_id")) {
+            row.setCategoryId(UUID.fromString(fields.get("category_id")));
+        }
+        if (fields.containsKey("branch_id")) {
+            row.setBranchId(UUID.fromString(fields.get("branch_id")));
+        }
+        if (fields.containsKey("price")) {
+            row.setPrice(new BigDecimal(fields.get("price")));
+        }
+        if (fields.containsKey("cost_price")) {
+            row.setCostPrice(new BigDecimal(fields.get("cost_price")));
+        }
+        if (fields.containsKey("stock_quantity")) {
+            row.setStockQuantity(Integer.valueOf(fields.get("stock_quantity")));
+        }
+        if (fields.containsKey("status")) {
+            row.setStatus(Status.valueOf(fields.get("status").toUpperCase(Locale.ROOT)));
+        }
+        if (fields.containsKey("images")) {
+            row.setImages(Arrays.stream(fields.get("images").split("\\|"))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .collect(Collectors.toList()));
+        }
+        if (fields.containsKey("specifications")) {
+            List<ProductDTO.ProductSpecificationDTO> specifications = new ArrayList<>();
+            for (String pair : fields.get("specifications").split("\\|")) {
+                int separator = pair.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Specification must be key=value: " + pair);
+                }
+                ProductDTO.ProductSpecificationDTO spec = new ProductDTO.ProductSpecificationDTO();
+                spec.setSpecKey(pair.substring(0, separator).trim());
+                spec.setSpecValue(pair.substring(separator + 1).trim());
+                specifications.add(spec);
+            }
+            row.setSpecifications(specifications);
+        }
+        return row;
+    }
+
+    /**
+     * RFC 4180 fields on a single line: quoted fields may contain commas and "" escapes,
+     * but not line breaks.
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static ProductImportDTO.Report snapshot(ProductImportDTO.Report report) {
+        ProductImportDTO.Report copy = new ProductImportDTO.Report();
+        copy.setImportId(report.getImportId());
+        copy.setFormat(report.getFormat());
+        copy.setStatus(report.getStatus());
+        copy.setTotalRows(report.getTotalRows());
+        copy.setImportedRows(report.getImportedRows());
+        copy.setFailedRows(report.getFailedRows());
+        copy.setCommittedChunks(report.getCommittedChunks());
+        copy.setStartedAt(report.getStartedAt());
+        copy.setErrors(new ArrayList<>(report.getErrors()));
+        return copy;
+    }
+}
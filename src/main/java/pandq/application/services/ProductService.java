@@ -1,23 +1,37 @@
 package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import pandq.adapter.web.api.dtos.ProductDTO;
 import pandq.adapter.web.api.dtos.ProductSearchDTO;
 import pandq.application.port.repositories.CategoryRepository;
 import pandq.application.port.repositories.ProductRepository;
+import pandq.domain.events.ProductCatalogChangedEvent;
+import pandq.domain.events.ProductChangedEvent;
+import pandq.domain.models.PaginatedResult;
+import pandq.domain.models.enums.TrendingWindow;
 import pandq.domain.models.product.Category;
 import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductCoPurchase;
 import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSearchHit;
 import pandq.domain.models.product.ProductSpecification;
+import pandq.domain.models.product.ProductStats;
+import pandq.infrastructure.cache.ProductDetailCache;
 
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,42 +39,76 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int BEST_SELLER_RANK_LIMIT = 20;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final pandq.application.port.repositories.BranchRepository branchRepository;
     private final pandq.application.port.repositories.InventoryRepository inventoryRepository;
     private final pandq.application.port.repositories.SearchKeywordRepository searchKeywordRepository;
+    private final pandq.application.port.repositories.ProductCoPurchaseRepository productCoPurchaseRepository;
+    private final SearchKeywordService searchKeywordService;
+    private final TrendingSearchService trendingSearchService;
+    private final ProductDetailCache productDetailCache;
+    private final pandq.infrastructure.cache.BranchLocationCache branchLocationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional(readOnly = true)
     public List<ProductDTO.Response> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(productRepository.findAll());
     }
 
     @Transactional(readOnly = true)
     public List<ProductDTO.Response> getProductsByCategory(UUID categoryId) {
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(productRepository.findByCategoryId(categoryId));
     }
 
+    /**
+     * Keyset-paginated catalog listing; follow pagination.nextCursor for the next page.
+     */
     @Transactional(readOnly = true)
+    public PaginatedResult<ProductDTO.Response> getProductListing(ProductDTO.ListingRequest request) {
+        PaginatedResult<Product> page = productRepository.findListing(request);
+        return PaginatedResult.ofCursor(
+                mapToResponses(page.getData()),
+                page.getPagination().getSize(),
+                page.getPagination().getNextCursor());
+    }
+
+    /**
+     * Served from ProductDetailCache; a read-only transaction is only opened on a miss.
+     */
     public ProductDTO.Response getProductById(UUID id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        return mapToResponse(product);
+        return productDetailCache.get(id, () -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> {
+                Product product = productRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Product not found"));
+                return mapToResponse(product);
+            });
+        });
     }
 
-    @Transactional
-    public Page<ProductSearchDTO.Response> searchProducts(ProductSearchDTO.SearchRequest request) {
+    /**
+     * Page and facets are read in one repeatable-read transaction, so the facet counts describe
+     * the same snapshot as the results even while stock and ratings change underneath.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductSearchDTO.SearchResult searchProducts(ProductSearchDTO.SearchRequest request) {
         // Log search query for trending analysis
         if (request.getQuery() != null && !request.getQuery().isBlank()) {
             logSearchKeyword(request.getQuery());
         }
         
-        Page<Product> products = productRepository.search(request);
-        return products.map(this::mapToSearchResponse);
+        ProductSearchDTO.SearchResult result = new ProductSearchDTO.SearchResult();
+        Page<ProductSearchHit> hits = productRepository.search(request);
+        result.setPage(hits.map(this::mapToSearchResponse));
+        if (Boolean.TRUE.equals(request.getIncludeFacets())) {
+            result.setFacets(productRepository.searchFacets(request));
+        }
+        return result;
     }
 
     @Transactional
@@ -105,9 +153,7 @@ public class ProductService {
         Product savedProduct = productRepository.save(product);
 
         if (request.getStockQuantity() != null && request.getStockQuantity() > 0) {
-            // Add to the first available branch (default logic for now)
-            pandq.domain.models.branch.Branch defaultBranch = branchRepository.findAll().stream()
-                    .findFirst()
+            pandq.domain.models.branch.Branch defaultBranch = findDefaultBranch()
                     .orElseThrow(() -> new RuntimeException("No branch found to add inventory"));
 
             pandq.domain.models.branch.Inventory inventory = pandq.domain.models.branch.Inventory.builder()
@@ -121,6 +167,8 @@ public class ProductService {
             inventoryRepository.save(inventory);
         }
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getId()));
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(savedProduct.getId()));
         return mapToResponse(savedProduct);
     }
 
@@ -174,9 +222,7 @@ public class ProductService {
 
         // Update inventory if stockQuantity is provided
         if (request.getStockQuantity() != null && request.getStockQuantity() >= 0) {
-            pandq.domain.models.branch.Branch defaultBranch = branchRepository.findAll().stream()
-                    .findFirst()
-                    .orElse(null);
+            pandq.domain.models.branch.Branch defaultBranch = findDefaultBranch().orElse(null);
 
             if (defaultBranch != null) {
                 pandq.domain.models.branch.Inventory inventory = inventoryRepository
@@ -189,20 +235,99 @@ public class ProductService {
                                 .reservedQuantity(0)
                                 .build());
 
-                inventory.setQuantity(request.getStockQuantity());
-                inventoryRepository.save(inventory);
+                // The requested quantity is the product's total; other branches keep their stock
+                int total = inventoryRepository.sumQuantityByProductIds(List.of(savedProduct.getId()))
+                        .getOrDefault(savedProduct.getId(), 0);
+                int otherBranches = total - (inventory.getId() != null ? inventory.getQuantity() : 0);
+                boolean wasLow = inventory.getId() != null && pandq.domain.models.branch.LowStockAlert.isLow(inventory);
+                int quantity = Math.max(0, request.getStockQuantity() - otherBranches);
+                pandq.domain.models.branch.Inventory savedInventory;
+                if (inventory.getId() != null) {
+                    // Targeted update: never below, and never overwriting, the row's current reservations
+                    savedInventory = inventoryRepository.updateStockLevels(inventory, quantity, null);
+                } else {
+                    inventory.setQuantity(quantity);
+                    savedInventory = inventoryRepository.save(inventory);
+                }
+                if (!wasLow && pandq.domain.models.branch.LowStockAlert.isLow(savedInventory)) {
+                    eventPublisher.publishEvent(new pandq.domain.events.LowStockEvent(
+                            List.of(pandq.domain.models.branch.LowStockAlert.of(savedInventory))));
+                }
             }
         }
 
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getId()));
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(savedProduct.getId()));
         return mapToResponse(savedProduct);
     }
 
     @Transactional
     public void deleteProduct(UUID id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(id));
+    }
+
+    /**
+     * Branch that holds stock entered on the product form: the first shipping branch by name.
+     */
+    private Optional<pandq.domain.models.branch.Branch> findDefaultBranch() {
+        return branchLocationCache.get().defaultBranchId().flatMap(branchRepository::findById);
     }
 
     private ProductDTO.Response mapToResponse(Product product) {
+        return mapToResponses(List.of(product)).get(0);
+    }
+
+    /**
+     * Map a batch of products to responses.
+     * Stock, images, specifications and related products are each loaded with one
+     * set-based query for the whole batch instead of one lazy load per product.
+     */
+    private List<ProductDTO.Response> mapToResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> productIds = products.stream().map(Product::getId).collect(Collectors.toList());
+        Map<UUID, Integer> stockByProduct = inventoryRepository.sumQuantityByProductIds(productIds);
+        Map<UUID, List<ProductImage>> imagesByProduct = productRepository.findImagesByProductIds(productIds).stream()
+                .collect(Collectors.groupingBy(img -> img.getProduct().getId()));
+        Map<UUID, List<ProductSpecification>> specsByProduct = productRepository.findSpecificationsByProductIds(productIds).stream()
+                .collect(Collectors.groupingBy(spec -> spec.getProduct().getId()));
+        Map<UUID, List<Product>> relatedByProduct = findRelatedProducts(productIds);
+
+        return products.stream()
+                .map(product -> mapToResponse(product,
+                        stockByProduct.getOrDefault(product.getId(), 0),
+                        imagesByProduct.getOrDefault(product.getId(), List.of()),
+                        specsByProduct.getOrDefault(product.getId(), List.of()),
+                        relatedByProduct.getOrDefault(product.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Co-purchase neighbours first, then the hand-curated related products to fill the gaps.
+     */
+    private Map<UUID, List<Product>> findRelatedProducts(List<UUID> productIds) {
+        Map<UUID, List<Product>> related = new HashMap<>();
+        for (ProductCoPurchase coPurchase : productCoPurchaseRepository.findByProductIds(productIds)) {
+            related.computeIfAbsent(coPurchase.getProduct().getId(), k -> new ArrayList<>())
+                    .add(coPurchase.getRelatedProduct());
+        }
+        productRepository.findRelatedProductsByProductIds(productIds).forEach((productId, curated) -> {
+            List<Product> merged = related.computeIfAbsent(productId, k -> new ArrayList<>());
+            for (Product product : curated) {
+                if (merged.stream().noneMatch(existing -> existing.getId().equals(product.getId()))) {
+                    merged.add(product);
+                }
+            }
+        });
+        return related;
+    }
+
+    private ProductDTO.Response mapToResponse(Product product, int totalStock, List<ProductImage> images,
+                                              List<ProductSpecification> specifications, List<Product> relatedProducts) {
         ProductDTO.Response response = new ProductDTO.Response();
         response.setId(product.getId());
         response.setCategoryId(product.getCategory().getId());
@@ -214,82 +339,65 @@ public class ProductService {
         response.setStatus(product.getStatus());
         response.setAverageRating(product.getAverageRating());
         response.setReviewCount(product.getReviewCount());
-
-        // Get stock quantity from inventory
-        List<pandq.domain.models.branch.Inventory> inventories = inventoryRepository.findByProductId(product.getId());
-        int totalStock = inventories.stream().mapToInt(pandq.domain.models.branch.Inventory::getQuantity).sum();
         response.setStockQuantity(totalStock);
+        response.setUpdatedAt(product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt());
 
         // Map images
-        if (product.getImages() != null) {
-            response.setImages(product.getImages().stream()
-                    .map(img -> {
-                        ProductDTO.ProductImageDTO imageDTO = new ProductDTO.ProductImageDTO();
-                        imageDTO.setId(img.getId());
-                        imageDTO.setImageUrl(img.getImageUrl());
-                        imageDTO.setDisplayOrder(img.getDisplayOrder());
-                        return imageDTO;
-                    })
-                    .collect(Collectors.toList()));
-        }
+        response.setImages(images.stream()
+                .map(img -> {
+                    ProductDTO.ProductImageDTO imageDTO = new ProductDTO.ProductImageDTO();
+                    imageDTO.setId(img.getId());
+                    imageDTO.setImageUrl(img.getImageUrl());
+                    imageDTO.setDisplayOrder(img.getDisplayOrder());
+                    return imageDTO;
+                })
+                .collect(Collectors.toList()));
 
         // Map specifications
-        if (product.getSpecifications() != null) {
-            response.setSpecifications(product.getSpecifications().stream()
-                    .map(spec -> {
-                        ProductDTO.ProductSpecificationDTO specDTO = new ProductDTO.ProductSpecificationDTO();
-                        specDTO.setSpecKey(spec.getSpecKey());
-                        specDTO.setSpecValue(spec.getSpecValue());
-                        return specDTO;
-                    })
-                    .collect(Collectors.toList()));
-        }
+        response.setSpecifications(specifications.stream()
+                .map(spec -> {
+                    ProductDTO.ProductSpecificationDTO specDTO = new ProductDTO.ProductSpecificationDTO();
+                    specDTO.setSpecKey(spec.getSpecKey());
+                    specDTO.setSpecValue(spec.getSpecValue());
+                    return specDTO;
+                })
+                .collect(Collectors.toList()));
 
         // Map related products (limit to 4)
-        if (product.getRelatedProducts() != null) {
-            response.setRelatedProducts(product.getRelatedProducts().stream()
-                    .limit(4)
-                    .map(rel -> {
-                        ProductDTO.RelatedProductDTO relDTO = new ProductDTO.RelatedProductDTO();
-                        relDTO.setId(rel.getId());
-                        relDTO.setName(rel.getName());
-                        relDTO.setThumbnailUrl(rel.getThumbnailUrl());
-                        relDTO.setPrice(rel.getPrice());
-                        return relDTO;
-                    })
-                    .collect(Collectors.toList()));
-        }
+        response.setRelatedProducts(relatedProducts.stream()
+                .limit(4)
+                .map(rel -> {
+                    ProductDTO.RelatedProductDTO relDTO = new ProductDTO.RelatedProductDTO();
+                    relDTO.setId(rel.getId());
+                    relDTO.setName(rel.getName());
+                    relDTO.setThumbnailUrl(rel.getThumbnailUrl());
+                    relDTO.setPrice(rel.getPrice());
+                    return relDTO;
+                })
+                .collect(Collectors.toList()));
 
         return response;
     }
 
     @Transactional(readOnly = true)
-    public List<String> getTrendingSearches() {
-        // Get popular keywords from search history
+    public List<String> getTrendingSearches(String window) {
+        List<String> trending = trendingSearchService.topKeywords(TrendingWindow.fromString(window), 10);
+        if (!trending.isEmpty()) {
+            return trending;
+        }
+        // Cold start with no recent searches: fall back to all-time search history
         return searchKeywordRepository.findTopKeywords(10).stream()
                 .map(pandq.domain.models.search.SearchKeyword::getKeyword)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
     public void logSearchKeyword(String query) {
-        if (query == null || query.isBlank()) return;
-        
-        String cleanQuery = query.trim().toLowerCase();
-        // Ignore very short queries
-        if (cleanQuery.length() < 2) return;
-
-        pandq.domain.models.search.SearchKeyword keyword = searchKeywordRepository.findByKeyword(cleanQuery)
-                .orElse(pandq.domain.models.search.SearchKeyword.builder()
-                        .keyword(cleanQuery)
-                        .searchCount(0L)
-                        .build());
-        
-        keyword.setSearchCount(keyword.getSearchCount() + 1);
-        searchKeywordRepository.save(keyword);
+        searchKeywordService.record(query);
     }
 
-    private ProductSearchDTO.Response mapToSearchResponse(Product product) {
+    private ProductSearchDTO.Response mapToSearchResponse(ProductSearchHit hit) {
+        Product product = hit.product();
+        ProductStats stats = hit.stats();
         ProductSearchDTO.Response response = new ProductSearchDTO.Response();
         response.setId(product.getId());
         response.setCategoryId(product.getCategory().getId());
@@ -300,10 +408,8 @@ public class ProductService {
         response.setThumbnailUrl(product.getThumbnailUrl());
         response.setAverageRating(product.getAverageRating());
         response.setReviewCount(product.getReviewCount());
-        // TODO: Implement isBestSeller and stockQuantity logic when Inventory module is
-        // ready
-        response.setIsBestSeller(product.getReviewCount() != null && product.getReviewCount() > 100);
-        response.setStockQuantity(100); // Placeholder - integrate with Inventory later
+        response.setIsBestSeller(stats.getBestSellerRank() != null && stats.getBestSellerRank() <= BEST_SELLER_RANK_LIMIT);
+        response.setStockQuantity(Math.max(stats.getAvailableStock(), 0));
         return response;
     }
 }
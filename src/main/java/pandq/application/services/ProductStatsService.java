@@ -0,0 +1,26 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pandq.application.port.repositories.ProductStatsRepository;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStatsService {
+
+    private final ProductStatsRepository productStatsRepository;
+
+    /**
+     * Slide the 30-day sales window and re-rank best sellers.
+     * Triggers keep stock and units sold current between runs, but only a full pass can
+     * age out old sales and reorder ranks.
+     */
+    @Transactional
+    public void refresh() {
+        int rows = productStatsRepository.refreshSalesWindowAndRanks();
+        log.debug("Refreshed product stats for {} products", rows);
+    }
+}
@@ -0,0 +1,148 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.adapter.web.api.dtos.ProductSearchDTO;
+import pandq.application.port.repositories.ProductRepository;
+import pandq.application.port.repositories.SearchKeywordRepository;
+import pandq.domain.events.ProductCatalogChangedEvent;
+import pandq.domain.models.enums.Status;
+import pandq.domain.models.product.Product;
+import pandq.domain.models.search.PrefixIndex;
+import pandq.domain.models.search.SearchKeyword;
+import pandq.domain.models.search.SearchTextFolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type suggestions served from an in-process prefix index.
+ * The index is built at startup from product names and popular search keywords,
+ * then kept current after product changes commit and by a periodic keyword refresh, so lookups never touch the DB.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestionService {
+
+    private static final int TOP_K = 10;
+    private static final int KEYWORD_LIMIT = 500;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final String PRODUCT_ID_PREFIX = "product:";
+    private static final String KEYWORD_ID_PREFIX = "keyword:";
+
+    private final ProductRepository productRepository;
+    private final SearchKeywordRepository searchKeywordRepository;
+
+    private final PrefixIndex<ProductSearchDTO.Suggestion> index = new PrefixIndex<>(TOP_K);
+
+    public List<ProductSearchDTO.Suggestion> suggest(String prefix, int limit) {
+        String key = String.join(" ", SearchTextFolder.tokens(prefix));
+        return index.lookup(key, Math.max(1, limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<PrefixIndex.Entry<ProductSearchDTO.Suggestion>> entries = new ArrayList<>();
+        for (Product product : productRepository.findAll()) {
+            if (product.getStatus() != Status.INACTIVE) {
+                entries.add(toEntry(product));
+            }
+        }
+        for (SearchKeyword keyword : searchKeywordRepository.findTopKeywords(KEYWORD_LIMIT)) {
+            entries.add(toEntry(keyword));
+        }
+        index.replaceAll(entries);
+        log.info("Built product suggestion index with {} entries", entries.size());
+    }
+
+    /**
+     * Re-read popular keywords and swap them into the index, leaving product entries untouched.
+     */
+    @Transactional(readOnly = true)
+    public void refreshKeywords() {
+        List<PrefixIndex.Entry<ProductSearchDTO.Suggestion>> keywords = searchKeywordRepository.findTopKeywords(KEYWORD_LIMIT).stream()
+                .map(this::toEntry)
+                .collect(Collectors.toList());
+        Set<String> current = keywords.stream().map(PrefixIndex.Entry::id).collect(Collectors.toSet());
+        List<String> stale = index.ids().stream()
+                .filter(id -> id.startsWith(KEYWORD_ID_PREFIX) && !current.contains(id))
+                .collect(Collectors.toList());
+        index.update(keywords, stale);
+    }
+
+    /**
+     * Re-read a changed product once its transaction commits, so a rolled-back write never reaches the
+     * index; a product no longer found was deleted. Stock moves do not publish this event, so checkout
+     * never waits on the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProductCatalogChanged(ProductCatalogChangedEvent event) {
+        productRepository.findById(event.productId()).ifPresentOrElse(
+                product -> indexProducts(List.of(product)),
+                () -> indexProducts(List.of(), List.of(PRODUCT_ID_PREFIX + event.productId())));
+    }
+
+    public void indexProducts(Collection<Product> products) {
+        indexProducts(products, new ArrayList<>());
+    }
+
+    private void indexProducts(Collection<Product> products, List<String> removals) {
+        List<PrefixIndex.Entry<ProductSearchDTO.Suggestion>> upserts = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getStatus() == Status.INACTIVE) {
+                removals.add(PRODUCT_ID_PREFIX + product.getId());
+            } else {
+                upserts.add(toEntry(product));
+            }
+        }
+        index.update(upserts, removals);
+    }
+
+    private PrefixIndex.Entry<ProductSearchDTO.Suggestion> toEntry(Product product) {
+        ProductSearchDTO.Suggestion suggestion = new ProductSearchDTO.Suggestion();
+        suggestion.setText(product.getName());
+        suggestion.setType("PRODUCT");
+        suggestion.setProductId(product.getId());
+        suggestion.setThumbnailUrl(product.getThumbnailUrl());
+
+        double weight = product.getReviewCount() != null ? product.getReviewCount() : 0;
+        return new PrefixIndex.Entry<>(PRODUCT_ID_PREFIX + product.getId(), wordStartKeys(product.getName()), suggestion, weight);
+    }
+
+    private PrefixIndex.Entry<ProductSearchDTO.Suggestion> toEntry(SearchKeyword keyword) {
+        ProductSearchDTO.Suggestion suggestion = new ProductSearchDTO.Suggestion();
+        suggestion.setText(keyword.getKeyword());
+        suggestion.setType("KEYWORD");
+
+        String key = String.join(" ", SearchTextFolder.tokens(keyword.getKeyword()));
+        return new PrefixIndex.Entry<>(KEYWORD_ID_PREFIX + key, List.of(truncate(key)), suggestion, keyword.getSearchCount());
+    }
+
+    /**
+     * One key per word start, so "Apple iPhone 15" is found by "app", "iph" and "15"
+     */
+    private List<String> wordStartKeys(String text) {
+        List<String> tokens = SearchTextFolder.tokens(text);
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(truncate(String.join(" ", tokens.subList(i, tokens.size()))));
+        }
+        return keys;
+    }
+
+    private String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.PromotionDTO;
+import pandq.application.port.repositories.ListQueryRepository;
 import pandq.application.port.repositories.PromotionRepository;
 import pandq.domain.models.enums.Status;
 import pandq.domain.models.marketing.Promotion;
@@ -11,19 +12,17 @@ import pandq.domain.models.marketing.Promotion;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PromotionService {
 
     private final PromotionRepository promotionRepository;
+    private final ListQueryRepository listQueryRepository;
 
     @Transactional(readOnly = true)
     public List<PromotionDTO.Response> getAllPromotions() {
-        return promotionRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return listQueryRepository.findAllPromotions();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,78 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pandq.application.port.repositories.ProductCoPurchaseRepository;
+import pandq.domain.events.ProductChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the precomputed co-purchase neighbours in product_co_purchases.
+ *
+ * A refresh only recomputes products that appear in orders changed since the last run, whether they
+ * completed or left COMPLETED; pair counts are symmetric, so every product whose list can change is in that set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedProductService {
+
+    public static final int TOP_N = 10;
+    private static final int CHUNK_SIZE = 500;
+    // Re-scan a short overlap so orders committed while the last run was in flight are not missed
+    private static final long WATERMARK_OVERLAP_MINUTES = 5;
+
+    private final ProductCoPurchaseRepository coPurchaseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile LocalDateTime watermark;
+
+    public synchronized void refresh() {
+        if (watermark == null) {
+            watermark = coPurchaseRepository.findLastComputedAt().orElse(null);
+            if (watermark == null) {
+                rebuild();
+                return;
+            }
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UUID> productIds = coPurchaseRepository
+                .findProductIdsInOrdersChangedSince(watermark.minusMinutes(WATERMARK_OVERLAP_MINUTES));
+        recompute(productIds, startedAt);
+        watermark = startedAt;
+        if (!productIds.isEmpty()) {
+            log.debug("Refreshed co-purchase neighbours for {} products", productIds.size());
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UUID> productIds = coPurchaseRepository.findAllCompletedOrderProductIds();
+        // Products with no completed orders left are not in the recomputed set, so drop their rows here
+        Integer removed = new TransactionTemplate(transactionManager)
+                .execute(status -> coPurchaseRepository.deleteProductsWithoutCompletedOrders());
+        recompute(productIds, startedAt);
+        watermark = startedAt;
+        log.info("Rebuilt co-purchase neighbours for {} products, removed stale rows: {}", productIds.size(), removed);
+    }
+
+    private void recompute(List<UUID> productIds, LocalDateTime computedAt) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < productIds.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = productIds.subList(from, Math.min(from + CHUNK_SIZE, productIds.size()));
+            transaction.executeWithoutResult(status -> {
+                coPurchaseRepository.recompute(chunk, TOP_N, computedAt);
+                // Cached product details embed related products
+                eventPublisher.publishEvent(new ProductChangedEvent(List.copyOf(chunk)));
+            });
+        }
+    }
+}
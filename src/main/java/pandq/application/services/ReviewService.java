@@ -2,16 +2,18 @@ package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.ReviewDTO;
 import pandq.application.port.repositories.OrderRepository;
 import pandq.application.port.repositories.ProductRepository;
 import pandq.application.port.repositories.ReviewRepository;
+import pandq.domain.events.ProductCatalogChangedEvent;
+import pandq.domain.events.ProductChangedEvent;
 import pandq.domain.models.interaction.Review;
 import pandq.domain.models.product.Product;
-import pandq.domain.models.user.User;
-import pandq.infrastructure.persistence.repositories.jpa.JpaUserRepository;
+import pandq.domain.models.user.UserPrincipal;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,8 +27,9 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
-    private final JpaUserRepository userRepository;
+    private final IdentityService identityService;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ReviewDTO.Response> getReviewsByProductId(UUID productId, Integer filterByRating, String sortBy) {
@@ -84,30 +87,16 @@ public class ReviewService {
         log.info("Creating review - productId: {}, userId: {}, rating: {}",
                 request.getProductId(), request.getUserId(), request.getRating());
 
-        User user = null;
-        if (request.getUserId() != null && !request.getUserId().isEmpty()) {
-            // Try to find by Firebase UID first
-            user = userRepository.findByFirebaseUid(request.getUserId()).orElse(null);
-
-            // If not found, try as UUID
-            if (user == null) {
-                try {
-                    UUID userUUID = UUID.fromString(request.getUserId());
-                    user = userRepository.findById(userUUID).orElse(null);
-                } catch (IllegalArgumentException e) {
-                    // Not a valid UUID, user not found
-                }
+        UserPrincipal user = identityService.resolve(request.getUserId()).orElse(null);
+        if (user == null) {
+            if (request.getUserId() == null || request.getUserId().isEmpty()) {
+                log.error("User ID is required but not provided");
+                throw new RuntimeException("User ID required");
             }
-
-            if (user == null) {
-                log.error("User not found: {}", request.getUserId());
-                throw new RuntimeException("User not found");
-            }
-            log.info("User found: {}", user.getFullName());
-        } else {
-            log.error("User ID is required but not provided");
-            throw new RuntimeException("User ID required");
+            log.error("User not found: {}", request.getUserId());
+            throw new RuntimeException("User not found");
         }
+        log.info("User found: {}", user.fullName());
 
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> {
@@ -117,15 +106,15 @@ public class ReviewService {
         log.info("Product found: {}", product.getName());
 
         // Check if user has purchased the product
-        if (!orderRepository.hasReceivedOrder(user.getId(), request.getProductId())) {
+        if (!orderRepository.hasReceivedOrder(user.id(), request.getProductId())) {
             log.warn("User {} has not purchased product {}, review not allowed",
-                    user.getId(), request.getProductId());
+                    user.id(), request.getProductId());
             throw new RuntimeException("Bạn chỉ có thể đánh giá sản phẩm mà bạn đã mua và nhận hàng thành công");
         }
         log.info("User has purchased product, proceeding with review creation");
 
         Review review = Review.builder()
-                .user(user)
+                .user(identityService.reference(user))
                 .product(product)
                 .rating(request.getRating())
                 .comment(request.getComment())
@@ -153,6 +142,8 @@ public class ReviewService {
         product.setReviewCount(reviews.size());
         product.setAverageRating(avg);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(product.getId()));
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(product.getId()));
     }
 
     @Transactional
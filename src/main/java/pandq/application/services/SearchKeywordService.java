@@ -0,0 +1,111 @@
+package pandq.application.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pandq.application.port.repositories.SearchKeywordRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind counter for search keywords.
+ * Searches only bump an in-memory count; the counts are flushed periodically as one batched upsert,
+ * so searching never writes to (or waits on) the search_keywords table.
+ */
+@Service
+@Slf4j
+public class SearchKeywordService {
+
+    private static final int MAX_PENDING_KEYWORDS = 10_000;
+    // search_keywords.keyword is varchar(255)
+    public static final int MAX_KEYWORD_LENGTH = 255;
+
+    private final SearchKeywordRepository searchKeywordRepository;
+    private final TrendingSearchService trendingSearchService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Long> pendingCounts = new ConcurrentHashMap<>();
+
+    public SearchKeywordService(SearchKeywordRepository searchKeywordRepository,
+                                TrendingSearchService trendingSearchService,
+                                PlatformTransactionManager transactionManager) {
+        this.searchKeywordRepository = searchKeywordRepository;
+        this.trendingSearchService = trendingSearchService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(String query) {
+        if (query == null || query.isBlank()) return;
+
+        String cleanQuery = query.trim().toLowerCase();
+        // Ignore very short queries, and queries too long to be a keyword
+        if (cleanQuery.length() < 2 || cleanQuery.length() > MAX_KEYWORD_LENGTH) return;
+
+        trendingSearchService.record(cleanQuery);
+
+        // Bound memory under a flood of unique queries; known keywords keep counting
+        if (pendingCounts.size() >= MAX_PENDING_KEYWORDS && !pendingCounts.containsKey(cleanQuery)) {
+            log.debug("Search keyword buffer full, dropping '{}'", cleanQuery);
+            return;
+        }
+        pendingCounts.merge(cleanQuery, 1L, Long::sum);
+    }
+
+    /**
+     * Drain buffered counts into search_keywords with one batched upsert.
+     * Each key is removed atomically, so hits recorded during the flush land in the next one.
+     * If the batch fails, keys are retried one by one and a key that fails on its own is dropped,
+     * so one bad keyword cannot block every later flush.
+     */
+    public void flush() {
+        if (pendingCounts.isEmpty()) return;
+
+        Map<String, Long> batch = new HashMap<>();
+        for (String keyword : pendingCounts.keySet()) {
+            Long count = pendingCounts.remove(keyword);
+            if (count != null) {
+                batch.put(keyword, count);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> searchKeywordRepository.incrementSearchCounts(batch));
+            log.debug("Flushed {} search keywords", batch.size());
+        } catch (RuntimeException e) {
+            flushEach(batch, e);
+        }
+    }
+
+    private void flushEach(Map<String, Long> batch, RuntimeException batchFailure) {
+        Map<String, Long> failed = new HashMap<>();
+        for (Map.Entry<String, Long> entry : batch.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        searchKeywordRepository.incrementSearchCounts(Map.of(entry.getKey(), entry.getValue())));
+            } catch (RuntimeException e) {
+                failed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (failed.size() == batch.size()) {
+            // Nothing could be written, most likely the database is unavailable; retry on the next flush
+            batch.forEach((keyword, count) -> pendingCounts.merge(keyword, count, Long::sum));
+            throw batchFailure;
+        }
+        if (!failed.isEmpty()) {
+            log.warn("Dropped {} search keywords that could not be saved: {}", failed.size(), failed.keySet());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush search keywords on shutdown: {}", e.getMessage());
+        }
+    }
+}
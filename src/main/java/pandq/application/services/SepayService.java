@@ -10,10 +10,10 @@ import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import pandq.adapter.web.api.dtos.SepayDTO;
+import pandq.application.exceptions.ConflictException;
 import pandq.application.port.repositories.OrderRepository;
 import pandq.domain.models.order.Order;
 import pandq.domain.models.enums.OrderStatus;
-import pandq.domain.models.enums.NotificationType;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -30,8 +30,8 @@ import java.util.*;
 public class SepayService {
 
     private final OrderRepository orderRepository;
-    private final NotificationService notificationService;
-    private final InventoryService inventoryService;
+    private final AdminNotificationService adminNotificationService;
+    private final OrderStateMachine orderStateMachine;
 
     @Value("${SEPAY_API_TOKEN:}")
     private String apiToken;
@@ -45,6 +45,8 @@ public class SepayService {
     @Value("${SEPAY_ACCOUNT_NAME:}")
     private String accountName;
 
+    private static final String ACTOR_SEPAY = "SEPAY";
+
     // VietQR API for generating QR codes
     private static final String VIETQR_API = "https://img.vietqr.io/image";
     
@@ -168,29 +170,26 @@ public class SepayService {
                                 Optional<Order> orderOpt = orderRepository.findById(orderUuid);
                                 if (orderOpt.isPresent()) {
                                     Order order = orderOpt.get();
-                                    order.setStatus(OrderStatus.CONFIRMED);
-                                    orderRepository.save(order);
-                                    log.info("Updated order {} status to CONFIRMED", pending.orderId);
-                                    
-                                    // Reserve inventory for confirmed order
-                                    for (var item : order.getOrderItems()) {
-                                        inventoryService.reserveInventoryForOrder(
-                                            item.getProduct().getId(),
-                                            item.getQuantity()
-                                        );
+                                    if (order.getStatus() != OrderStatus.PENDING) {
+                                        log.info("Order {} is already {}, ignoring webhook", pending.orderId, order.getStatus());
+                                        response.setSuccess(true);
+                                        response.setMessage("Payment already confirmed");
+                                        return response;
                                     }
-                                    log.info("Reserved inventory for order {}", pending.orderId);
-                                    
-                                    // Send FCM notification to customer (async - non-blocking)
-                                    UUID userId = order.getUser().getId();
-                                    String orderIdShort = pending.orderId.substring(pending.orderId.length() - 8).toUpperCase();
-                                    notificationService.createNotificationAsync(
-                                        userId,
-                                        NotificationType.ORDER_UPDATE,
-                                        "Thanh toán thành công!",
-                                        "Đơn hàng #" + orderIdShort + " đã được thanh toán thành công. Cảm ơn bạn đã mua sắm tại PandQ!",
-                                        "pandq://orders/" + pending.orderId
-                                    );
+                                    // Stock is reserved and the customer is notified by the state machine
+                                    try {
+                                        orderStateMachine.transition(order.getId(), OrderStatus.CONFIRMED,
+                                            "Paid by bank transfer, SePay code " + paymentCode, ACTOR_SEPAY);
+                                    } catch (ConflictException e) {
+                                        // Retrying will not bring the stock back; admins sort it out with the customer
+                                        log.error("Order {} was paid but could not be confirmed: {}", pending.orderId, e.getMessage());
+                                        adminNotificationService.sendAdminAlert("Đơn hàng đã thanh toán nhưng hết hàng",
+                                            "Đơn hàng #" + pending.orderId + " đã chuyển khoản nhưng không đủ hàng để xác nhận");
+                                        response.setSuccess(true);
+                                        response.setMessage("Payment received, order needs review");
+                                        return response;
+                                    }
+                                    log.info("Updated order {} status to CONFIRMED", pending.orderId);
                                 }
                             } catch (IllegalArgumentException e) {
                                 log.warn("Invalid orderId format: {}", pending.orderId);
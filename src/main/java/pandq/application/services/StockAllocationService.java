@@ -0,0 +1,248 @@
+package pandq.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pandq.application.exceptions.ConflictException;
+import pandq.application.port.repositories.InventoryRepository;
+import pandq.application.port.repositories.StockAllocationRepository;
+import pandq.domain.events.LowStockEvent;
+import pandq.domain.events.ProductChangedEvent;
+import pandq.domain.models.branch.BranchLocationIndex;
+import pandq.domain.models.branch.GeoPoint;
+import pandq.domain.models.branch.LowStockAlert;
+import pandq.domain.models.branch.StockAllocation;
+import pandq.domain.models.branch.StockAllocator;
+import pandq.domain.models.order.Order;
+import pandq.domain.models.order.OrderItem;
+import pandq.infrastructure.cache.BranchLocationCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Decides which branch ships each order line and moves stock on those inventory rows.
+ * <p>
+ * Reservations are planned by {@link StockAllocator} against the branches' unreserved stock and the order's
+ * destination, then applied with guarded updates. A line whose row was taken by a concurrent order is
+ * re-planned against fresh stock a few times before the reservation fails. The chosen rows are recorded in
+ * order_item_allocations so that cancelling or delivering the order moves stock on the same rows.
+ * Orders reserved before allocations were recorded fall back to the product's most reserved row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockAllocationService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+    private final StockAllocationRepository stockAllocationRepository;
+    private final BranchLocationCache branchLocationCache;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reserve stock for every line of the orders, or throw a {@link ConflictException} leaving the
+     * surrounding transaction to roll back whatever was reserved.
+     */
+    @Transactional
+    public void reserve(Collection<Order> orders) {
+        Map<Order, List<StockAllocator.Line>> lines = new LinkedHashMap<>();
+        for (Order order : orders) {
+            lines.put(order, linesOf(order));
+        }
+        Set<UUID> productIds = productIds(orders);
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        BranchLocationIndex index = branchLocationCache.get();
+        List<StockAllocation> reserved = new ArrayList<>();
+        for (int attempt = 1; !lines.isEmpty(); attempt++) {
+            StockAllocator allocator = new StockAllocator(index, inventoryRepository.findLevelsByProductIds(productIds));
+            List<StockAllocation> planned = new ArrayList<>();
+            for (Map.Entry<Order, List<StockAllocator.Line>> entry : lines.entrySet()) {
+                StockAllocator.Plan plan = allocator.allocate(entry.getValue(), destinationOf(entry.getKey(), index));
+                if (!plan.shortProductIds().isEmpty()) {
+                    throw new ConflictException("Not enough stock for products " + plan.shortProductIds());
+                }
+                planned.addAll(plan.allocations());
+            }
+
+            List<StockAllocation> failed = inventoryRepository.reserve(planned);
+            Set<StockAllocation> failedSet = new HashSet<>(failed);
+            planned.stream().filter(allocation -> !failedSet.contains(allocation)).forEach(reserved::add);
+            if (failed.isEmpty()) {
+                break;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new ConflictException("Not enough stock for products "
+                        + failed.stream().map(StockAllocation::productId).distinct().toList());
+            }
+            // A concurrent order took stock from the chosen rows; plan only the untaken portions again
+            lines = remainingLines(lines, failed);
+            log.debug("Re-planning {} allocations after concurrent reservations", failed.size());
+        }
+
+        stockAllocationRepository.saveAll(merged(reserved));
+        eventPublisher.publishEvent(new ProductChangedEvent(productIds));
+        publishLowStock(reserved);
+    }
+
+    /**
+     * Return the orders' reserved stock to the rows it was taken from and forget the allocations.
+     */
+    @Transactional
+    public void release(Collection<Order> orders) {
+        apply(orders, inventoryRepository::release, inventoryRepository::releaseByProduct);
+        stockAllocationRepository.deleteByOrderItemIds(orderItemIds(orders));
+    }
+
+    /**
+     * Ship the orders' reserved stock from the rows it was taken from. Allocations are kept as the record
+     * of which branch shipped each line.
+     */
+    @Transactional
+    public void complete(Collection<Order> orders) {
+        apply(orders, inventoryRepository::complete, inventoryRepository::completeByProduct);
+    }
+
+    private void apply(Collection<Order> orders,
+                       Consumer<List<StockAllocation>> byRow,
+                       Consumer<Map<UUID, Integer>> byProduct) {
+        Set<UUID> productIds = productIds(orders);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<StockAllocation> allocations = stockAllocationRepository.findByOrderItemIds(orderItemIds(orders));
+        Set<UUID> allocatedItemIds = new HashSet<>();
+        allocations.forEach(allocation -> allocatedItemIds.add(allocation.orderItemId()));
+
+        Map<UUID, Integer> legacy = new HashMap<>();
+        for (Order order : orders) {
+            for (StockAllocator.Line line : linesOf(order)) {
+                if (!allocatedItemIds.contains(line.orderItemId())) {
+                    legacy.merge(line.productId(), line.quantity(), Integer::sum);
+                }
+            }
+        }
+
+        if (!allocations.isEmpty()) {
+            byRow.accept(allocations);
+        }
+        if (!legacy.isEmpty()) {
+            byProduct.accept(legacy);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(productIds));
+    }
+
+    /**
+     * Report the rows this reservation took below their minimum; rows that were already below it are
+     * not reported again.
+     */
+    private void publishLowStock(List<StockAllocation> reserved) {
+        Map<UUID, Integer> reservedByRow = new HashMap<>();
+        reserved.forEach(allocation -> reservedByRow.merge(allocation.inventoryId(), allocation.quantity(), Integer::sum));
+        List<LowStockAlert> crossed = inventoryRepository.findLowStockAlerts(reservedByRow.keySet()).stream()
+                .filter(alert -> alert.available() + reservedByRow.get(alert.inventoryId()) >= alert.minStock())
+                .toList();
+        if (!crossed.isEmpty()) {
+            eventPublisher.publishEvent(new LowStockEvent(crossed));
+        }
+    }
+
+    private Map<Order, List<StockAllocator.Line>> remainingLines(Map<Order, List<StockAllocator.Line>> lines,
+                                                                 List<StockAllocation> failed) {
+        Map<UUID, Integer> missing = new HashMap<>();
+        failed.forEach(allocation -> missing.merge(allocation.orderItemId(), allocation.quantity(), Integer::sum));
+
+        Map<Order, List<StockAllocator.Line>> remaining = new LinkedHashMap<>();
+        lines.forEach((order, orderLines) -> {
+            List<StockAllocator.Line> left = orderLines.stream()
+                    .filter(line -> missing.containsKey(line.orderItemId()))
+                    .map(line -> new StockAllocator.Line(line.orderItemId(), line.productId(), missing.get(line.orderItemId())))
+                    .toList();
+            if (!left.isEmpty()) {
+                remaining.put(order, left);
+            }
+        });
+        return remaining;
+    }
+
+    // A line re-planned after a failed reservation may land on a row it already holds
+    private List<StockAllocation> merged(List<StockAllocation> allocations) {
+        Map<List<UUID>, StockAllocation> merged = new LinkedHashMap<>();
+        for (StockAllocation allocation : allocations) {
+            merged.merge(List.of(allocation.orderItemId(), allocation.inventoryId()), allocation,
+                    (a, b) -> new StockAllocation(a.orderItemId(), a.inventoryId(), a.branchId(), a.productId(),
+                            a.quantity() + b.quantity()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Where the order ships to: coordinates in the address snapshot if the client sent them, otherwise
+     * the centre of the branches in the address's city, otherwise unknown (branches are then ranked by stock).
+     */
+    private GeoPoint destinationOf(Order order, BranchLocationIndex index) {
+        String address = order.getShippingAddress();
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(address);
+            JsonNode latitude = node.has("latitude") ? node.get("latitude") : node.get("lat");
+            JsonNode longitude = node.has("longitude") ? node.get("longitude") : node.get("lng");
+            if (latitude != null && longitude != null && latitude.isNumber() && longitude.isNumber()) {
+                return new GeoPoint(latitude.asDouble(), longitude.asDouble());
+            }
+            JsonNode city = node.get("city");
+            return city != null && city.isTextual() ? index.locate(city.asText()).orElse(null) : null;
+        } catch (Exception e) {
+            // Plain-text address without structure
+            return null;
+        }
+    }
+
+    private List<StockAllocator.Line> linesOf(Order order) {
+        if (order.getOrderItems() == null) {
+            return List.of();
+        }
+        return order.getOrderItems().stream()
+                .map(item -> new StockAllocator.Line(item.getId(), item.getProduct().getId(), item.getQuantity()))
+                .toList();
+    }
+
+    private Set<UUID> productIds(Collection<Order> orders) {
+        Set<UUID> productIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getOrderItems() != null) {
+                order.getOrderItems().forEach(item -> productIds.add(item.getProduct().getId()));
+            }
+        }
+        return productIds;
+    }
+
+    private List<UUID> orderItemIds(Collection<Order> orders) {
+        List<UUID> ids = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getOrderItems() != null) {
+                order.getOrderItems().stream().map(OrderItem::getId).forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,150 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pandq.adapter.web.api.dtos.AppConfigDTO;
+import pandq.adapter.web.api.dtos.SyncDTO;
+import pandq.application.port.repositories.BranchRepository;
+import pandq.application.port.repositories.CategoryRepository;
+import pandq.application.port.repositories.ProductRepository;
+import pandq.application.port.repositories.SyncChangeRepository;
+import pandq.domain.models.branch.Branch;
+import pandq.domain.models.enums.SyncEntityType;
+import pandq.domain.models.product.Category;
+import pandq.domain.models.product.Product;
+import pandq.domain.models.sync.SyncChange;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync of mobile master data (categories, branches, catalog) against sync_changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_LIMIT = 2000;
+
+    private final SyncChangeRepository syncChangeRepository;
+    private final CategoryRepository categoryRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+
+    @Transactional(readOnly = true)
+    public Map<SyncEntityType, Long> getLatestVersions() {
+        Map<SyncEntityType, Long> versions = new EnumMap<>(SyncEntityType.class);
+        for (SyncEntityType type : SyncEntityType.values()) {
+            versions.put(type, 0L);
+        }
+        versions.putAll(syncChangeRepository.findLatestVersions());
+        return versions;
+    }
+
+    /**
+     * Changed and deleted records after {@code since}; {@code since = 0} returns a full snapshot.
+     */
+    @Transactional(readOnly = true)
+    public SyncDTO.Response getChangesSince(long since, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<SyncChange> changes = syncChangeRepository.findChangesSince(since, size + 1);
+
+        SyncDTO.Response response = new SyncDTO.Response();
+        response.setHasMore(changes.size() > size);
+        if (changes.size() > size) {
+            // Changes of one transaction share a version; end the page before the version it would split
+            long cut = changes.get(size).getVersion();
+            changes = changes.subList(0, size).stream().filter(change -> change.getVersion() < cut).toList();
+            if (changes.isEmpty()) {
+                changes = syncChangeRepository.findChangesAt(cut);
+            }
+        }
+        response.setVersion(changes.isEmpty() ? since : changes.get(changes.size() - 1).getVersion());
+
+        Map<SyncEntityType, List<UUID>> live = new EnumMap<>(SyncEntityType.class);
+        for (SyncChange change : changes) {
+            if (Boolean.TRUE.equals(change.getDeleted())) {
+                addDeleted(response, change.getEntityType(), change.getEntityId());
+            } else {
+                live.computeIfAbsent(change.getEntityType(), k -> new ArrayList<>()).add(change.getEntityId());
+            }
+        }
+
+        // One set-based load per type; a record deleted since the change was read counts as deleted
+        List<UUID> categoryIds = live.getOrDefault(SyncEntityType.CATEGORY, List.of());
+        Map<UUID, Category> categories = categoryIds.isEmpty() ? Map.of()
+                : categoryRepository.findAllById(categoryIds).stream()
+                        .collect(Collectors.toMap(Category::getId, Function.identity()));
+        for (UUID id : categoryIds) {
+            Category category = categories.get(id);
+            if (category == null) {
+                addDeleted(response, SyncEntityType.CATEGORY, id);
+            } else {
+                response.getCategories().add(AppConfigDTO.CategoryResponse.builder()
+                        .id(category.getId().toString())
+                        .name(category.getName())
+                        .imageUrl(category.getImageUrl())
+                        .build());
+            }
+        }
+
+        List<UUID> branchIds = live.getOrDefault(SyncEntityType.BRANCH, List.of());
+        Map<UUID, Branch> branches = branchIds.isEmpty() ? Map.of()
+                : branchRepository.findAllById(branchIds).stream()
+                        .collect(Collectors.toMap(Branch::getId, Function.identity()));
+        for (UUID id : branchIds) {
+            Branch branch = branches.get(id);
+            if (branch == null) {
+                addDeleted(response, SyncEntityType.BRANCH, id);
+            } else {
+                response.getLocations().add(AppConfigDTO.LocationResponse.builder()
+                        .id(branch.getId().toString())
+                        .name(branch.getName())
+                        .address(branch.getAddress())
+                        .latitude(branch.getLatitude())
+                        .longitude(branch.getLongitude())
+                        .build());
+            }
+        }
+
+        List<UUID> productIds = live.getOrDefault(SyncEntityType.PRODUCT, List.of());
+        Map<UUID, Product> products = productIds.isEmpty() ? Map.of()
+                : productRepository.findAllById(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (UUID id : productIds) {
+            Product product = products.get(id);
+            if (product == null) {
+                addDeleted(response, SyncEntityType.PRODUCT, id);
+            } else {
+                response.getProducts().add(mapToProductItem(product));
+            }
+        }
+        return response;
+    }
+
+    private void addDeleted(SyncDTO.Response response, SyncEntityType type, UUID id) {
+        SyncDTO.DeletedItem item = new SyncDTO.DeletedItem();
+        item.setType(type);
+        item.setId(id);
+        response.getDeleted().add(item);
+    }
+
+    private SyncDTO.ProductItem mapToProductItem(Product product) {
+        SyncDTO.ProductItem item = new SyncDTO.ProductItem();
+        item.setId(product.getId());
+        item.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
+        item.setName(product.getName());
+        item.setPrice(product.getPrice());
+        item.setThumbnailUrl(product.getThumbnailUrl());
+        item.setStatus(product.getStatus());
+        item.setAverageRating(product.getAverageRating());
+        item.setReviewCount(product.getReviewCount());
+        return item;
+    }
+}
@@ -0,0 +1,100 @@
+package pandq.application.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pandq.application.port.repositories.SearchTrendSnapshotRepository;
+import pandq.domain.models.enums.TrendingWindow;
+import pandq.domain.models.search.DecayingTopKSketch;
+import pandq.domain.models.search.SearchTrendSnapshot;
+import pandq.domain.models.search.TrendingScore;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Trending searches per time window (1h, 24h, 7d).
+ * Each window keeps a bounded, exponentially decayed heavy-hitters sketch in memory,
+ * checkpointed to search_trend_snapshots so the ranking survives restarts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingSearchService {
+
+    private static final int SKETCH_CAPACITY = 1000;
+    private static final int CHECKPOINT_SIZE = 200;
+
+    private final SearchTrendSnapshotRepository snapshotRepository;
+
+    private final Map<TrendingWindow, DecayingTopKSketch> sketches = createSketches();
+
+    public void record(String keyword) {
+        // search_trend_snapshots.keyword is varchar(255)
+        if (keyword == null || keyword.length() > SearchKeywordService.MAX_KEYWORD_LENGTH) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        sketches.values().forEach(sketch -> sketch.add(keyword, 1, now));
+    }
+
+    public List<String> topKeywords(TrendingWindow window, int limit) {
+        return sketches.get(window).top(limit, System.currentTimeMillis()).stream()
+                .map(TrendingScore::keyword)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void checkpoint() {
+        long now = System.currentTimeMillis();
+        LocalDateTime capturedAt = toLocalDateTime(now);
+        for (Map.Entry<TrendingWindow, DecayingTopKSketch> entry : sketches.entrySet()) {
+            List<SearchTrendSnapshot> rows = entry.getValue().top(CHECKPOINT_SIZE, now).stream()
+                    .map(score -> SearchTrendSnapshot.builder()
+                            .windowName(entry.getKey().getCode())
+                            .keyword(score.keyword())
+                            .score(score.score())
+                            .error(score.error())
+                            .capturedAt(capturedAt)
+                            .build())
+                    .collect(Collectors.toList());
+            snapshotRepository.replaceWindow(entry.getKey().getCode(), rows);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restore() {
+        long now = System.currentTimeMillis();
+        int restored = 0;
+        for (Map.Entry<TrendingWindow, DecayingTopKSketch> entry : sketches.entrySet()) {
+            for (SearchTrendSnapshot row : snapshotRepository.findByWindowName(entry.getKey().getCode())) {
+                long capturedAt = row.getCapturedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                entry.getValue().restore(new TrendingScore(row.getKeyword(), row.getScore(), row.getError()), capturedAt, now);
+                restored++;
+            }
+        }
+        log.info("Restored {} trending search counters", restored);
+    }
+
+    private static Map<TrendingWindow, DecayingTopKSketch> createSketches() {
+        long now = System.currentTimeMillis();
+        Map<TrendingWindow, DecayingTopKSketch> sketches = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            sketches.put(window, new DecayingTopKSketch(SKETCH_CAPACITY, window.getTimeConstant(), now));
+        }
+        return sketches;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -2,10 +2,12 @@ package pandq.application.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pandq.adapter.web.api.dtos.UserDTO;
 import pandq.application.port.repositories.UserRepository;
+import pandq.domain.events.UserChangedEvent;
 import pandq.domain.models.enums.NotificationType;
 import pandq.domain.models.enums.Role;
 import pandq.domain.models.enums.UserStatus;
@@ -26,6 +28,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UserDTO.Response> getAllUsers() {
@@ -61,6 +64,7 @@ public class UserService {
                 // Ensure status is active
                 existingUser.setStatus(UserStatus.ACTIVE);
                 User savedUser = userRepository.save(existingUser);
+                publishUserChanged(savedUser);
                 return mapToResponse(savedUser);
             } else {
                 // If already Admin/Staff or other conflict
@@ -154,9 +158,14 @@ public class UserService {
         user.setAvatarUrl(request.getAvatarUrl());
 
         User savedUser = userRepository.save(user);
+        publishUserChanged(savedUser);
         return mapToResponse(savedUser);
     }
 
+    private void publishUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getFirebaseUid()));
+    }
+
     private UserDTO.Response mapToResponse(User user) {
         UserDTO.Response response = new UserDTO.Response();
         response.setId(user.getId());
@@ -290,6 +299,7 @@ public class UserService {
         // Update user status to CLOSED
         user.setStatus(UserStatus.CLOSED);
         userRepository.save(user);
+        publishUserChanged(user);
         log.info("User account closed: {} - Reason: {}", email, reason != null ? reason : "Not provided");
         
         // Disable Firebase account if firebaseUid exists
@@ -326,6 +336,7 @@ public class UserService {
         log.info("Demoting user {} from {} to CUSTOMER", email, user.getRole());
         user.setRole(Role.CUSTOMER);
         userRepository.save(user);
+        publishUserChanged(user);
     }
 }
 
@@ -8,9 +8,8 @@ import pandq.adapter.web.api.dtos.VoucherDTO;
 import pandq.domain.models.enums.Status;
 import pandq.domain.models.marketing.Promotion;
 import pandq.domain.models.marketing.UserVoucher;
-import pandq.domain.models.user.User;
+import pandq.domain.models.user.UserPrincipal;
 import pandq.infrastructure.persistence.repositories.jpa.JpaPromotionRepository;
-import pandq.infrastructure.persistence.repositories.jpa.JpaUserRepository;
 import pandq.infrastructure.persistence.repositories.jpa.JpaUserVoucherRepository;
 
 import java.time.LocalDateTime;
@@ -29,7 +28,7 @@ public class VoucherService {
 
     private final JpaPromotionRepository promotionRepository;
     private final JpaUserVoucherRepository userVoucherRepository;
-    private final JpaUserRepository userRepository;
+    private final IdentityService identityService;
 
     /**
      * Get all available (active, not expired) vouchers
@@ -48,9 +47,9 @@ public class VoucherService {
         // Get user's claimed vouchers map if logged in
         final java.util.Map<UUID, UserVoucher> claimedVouchersMap = new java.util.HashMap<>();
         if (userId != null && !userId.isEmpty()) {
-            User user = findUser(userId);
+            UserPrincipal user = findUser(userId);
             if (user != null) {
-                userVoucherRepository.findByUserId(user.getId()).forEach(uv -> 
+                userVoucherRepository.findByUserId(user.id()).forEach(uv -> 
                     claimedVouchersMap.put(uv.getPromotion().getId(), uv)
                 );
             }
@@ -83,7 +82,7 @@ public class VoucherService {
      */
     @Transactional(readOnly = true)
     public VoucherDTO.VoucherListResponse getMyVouchers(String userId) {
-        User user = findUser(userId);
+        UserPrincipal user = findUser(userId);
         if (user == null) {
             return VoucherDTO.VoucherListResponse.builder()
                     .vouchers(List.of())
@@ -91,7 +90,7 @@ public class VoucherService {
                     .build();
         }
         
-        List<UserVoucher> userVouchers = userVoucherRepository.findByUserIdAndIsUsedFalse(user.getId());
+        List<UserVoucher> userVouchers = userVoucherRepository.findByUserIdAndIsUsedFalse(user.id());
         
         List<VoucherDTO.VoucherResponse> vouchers = userVouchers.stream()
                 .map(uv -> mapToVoucherResponse(uv.getPromotion(), true, uv.getIsUsed(), uv.getClaimedAt()))
@@ -108,7 +107,7 @@ public class VoucherService {
      */
     @Transactional
     public VoucherDTO.ClaimResponse claimVoucher(String userId, VoucherDTO.ClaimRequest request) {
-        User user = findUser(userId);
+        UserPrincipal user = findUser(userId);
         if (user == null) {
             return VoucherDTO.ClaimResponse.builder()
                     .success(false)
@@ -127,7 +126,7 @@ public class VoucherService {
         }
         
         // Check if already claimed
-        if (userVoucherRepository.existsByUserIdAndPromotionId(user.getId(), promotionId)) {
+        if (userVoucherRepository.existsByUserIdAndPromotionId(user.id(), promotionId)) {
             return VoucherDTO.ClaimResponse.builder()
                     .success(false)
                     .message("Bạn đã lưu voucher này rồi")
@@ -155,14 +154,14 @@ public class VoucherService {
         
         // Save to user's wallet
         UserVoucher userVoucher = UserVoucher.builder()
-                .user(user)
+                .user(identityService.reference(user))
                 .promotion(promotion)
                 .claimedAt(LocalDateTime.now())
                 .isUsed(false)
                 .build();
         
         userVoucherRepository.save(userVoucher);
-        log.info("User {} claimed voucher {}", user.getId(), promotion.getCode());
+        log.info("User {} claimed voucher {}", user.id(), promotion.getCode());
         
         return VoucherDTO.ClaimResponse.builder()
                 .success(true)
@@ -199,26 +198,36 @@ public class VoucherService {
                 .build();
     }
 
-    /**
-     * Find user by Firebase UID or UUID
-     */
     /**
      * Validate and calculate voucher discount
      */
     @Transactional(readOnly = true)
     public java.math.BigDecimal applyVoucher(String userId, UUID promotionId, java.math.BigDecimal orderTotal, java.math.BigDecimal shippingFee) {
-        User user = findUser(userId);
+        UserPrincipal user = findUser(userId);
         if (user == null) {
             throw new RuntimeException("User not found");
         }
+        return calculateDiscount(findUsableVoucher(user.id(), promotionId), orderTotal, shippingFee);
+    }
 
-        UserVoucher userVoucher = userVoucherRepository.findByUserIdAndPromotionId(user.getId(), promotionId)
+    /**
+     * The user's unused voucher for a promotion, loaded together with the promotion
+     */
+    @Transactional(readOnly = true)
+    public UserVoucher findUsableVoucher(UUID userId, UUID promotionId) {
+        UserVoucher userVoucher = userVoucherRepository.findWithPromotionByUserIdAndPromotionId(userId, promotionId)
                 .orElseThrow(() -> new RuntimeException("Voucher not found in your wallet"));
 
         if (userVoucher.getIsUsed()) {
             throw new RuntimeException("Voucher has already been used");
         }
+        return userVoucher;
+    }
 
+    /**
+     * Validate a claimed voucher against an order and calculate its discount
+     */
+    public java.math.BigDecimal calculateDiscount(UserVoucher userVoucher, java.math.BigDecimal orderTotal, java.math.BigDecimal shippingFee) {
         Promotion p = userVoucher.getPromotion();
         LocalDateTime now = LocalDateTime.now();
 
@@ -267,20 +276,27 @@ public class VoucherService {
     public void markVoucherAsUsed(String userId, UUID promotionId) {
         log.info("Marking voucher {} as used for user {}", promotionId, userId);
         
-        User user = findUser(userId);
+        UserPrincipal user = findUser(userId);
         if (user == null) {
             log.error("User not found when marking voucher used: {}", userId);
             throw new RuntimeException("User not found");
         }
         
-        UserVoucher userVoucher = userVoucherRepository.findByUserIdAndPromotionId(user.getId(), promotionId)
+        UserVoucher userVoucher = userVoucherRepository.findWithPromotionByUserIdAndPromotionId(user.id(), promotionId)
                 .orElseThrow(() -> {
-                    log.error("Voucher {} not found for user {}", promotionId, user.getId());
+                    log.error("Voucher {} not found for user {}", promotionId, user.id());
                     return new RuntimeException("Voucher not found");
                 });
-        
+        markVoucherAsUsed(userVoucher);
+    }
+
+    /**
+     * Mark an already loaded voucher as used and count the use on its promotion
+     */
+    @Transactional
+    public void markVoucherAsUsed(UserVoucher userVoucher) {
         if (userVoucher.getIsUsed()) {
-            log.warn("Voucher {} was already marked as used for user {}", promotionId, user.getId());
+            log.warn("Voucher {} was already marked as used", userVoucher.getId());
         }
         
         userVoucher.setIsUsed(true);
@@ -295,27 +311,10 @@ public class VoucherService {
         userVoucherRepository.save(userVoucher);
         userVoucherRepository.flush(); // Force flush
         
-        log.info("Successfully marked voucher {} as used for user {}", promotionId, user.getId());
+        log.info("Successfully marked voucher {} as used", userVoucher.getId());
     }
 
-    private User findUser(String userId) {
-        if (userId == null || userId.isEmpty()) {
-            return null;
-        }
-        
-        // Try Firebase UID first
-        User user = userRepository.findByFirebaseUid(userId).orElse(null);
-        
-        // Try UUID if not found
-        if (user == null) {
-            try {
-                UUID uuid = UUID.fromString(userId);
-                user = userRepository.findById(uuid).orElse(null);
-            } catch (IllegalArgumentException e) {
-                // Not a valid UUID
-            }
-        }
-        
-        return user;
+    private UserPrincipal findUser(String userId) {
+        return identityService.resolve(userId).orElse(null);
     }
 }
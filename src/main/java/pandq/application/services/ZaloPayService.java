@@ -1,5 +1,6 @@
 package pandq.application.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,10 +12,11 @@ import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import pandq.adapter.web.api.dtos.ZaloPayDTO;
+import pandq.application.exceptions.ConflictException;
+import pandq.application.exceptions.OperationFailedException;
 import pandq.application.port.repositories.OrderRepository;
 import pandq.domain.models.order.Order;
 import pandq.domain.models.enums.OrderStatus;
-import pandq.domain.models.enums.NotificationType;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -30,9 +32,8 @@ public class ZaloPayService {
 
     private final OrderRepository orderRepository;
     private final VoucherService voucherService;
-    private final NotificationService notificationService;
     private final AdminNotificationService adminNotificationService;
-    private final InventoryService inventoryService;
+    private final OrderStateMachine orderStateMachine;
 
     @Value("${ZALOPAY_APP_ID:2554}")
     private int appId;
@@ -46,6 +47,8 @@ public class ZaloPayService {
     @Value("${ZALOPAY_CALLBACK_URL:https://callback.url/api/v1/payments/zalopay/callback}")
     private String callbackUrl;
 
+    private static final String ACTOR_ZALOPAY = "ZALOPAY";
+
     private static final String SANDBOX_ENDPOINT = "https://sb-openapi.zalopay.vn/v2/create";
     private static final String QUERY_ENDPOINT = "https://sb-openapi.zalopay.vn/v2/query";
 
@@ -169,102 +172,106 @@ public class ZaloPayService {
         }
     }
 
+    /**
+     * App transaction id of a callback, which ZaloPay keeps when it redelivers the callback.
+     */
+    @SuppressWarnings("unchecked")
+    public String callbackTransactionId(String data) {
+        try {
+            Map<String, Object> callbackData = objectMapper.readValue(data, Map.class);
+            return (String) callbackData.get("app_trans_id");
+        } catch (Exception e) {
+            log.warn("Could not read app_trans_id from callback data");
+            return null;
+        }
+    }
+
     /**
      * Process ZaloPay callback data and update order status
      * ZaloPay callback data format (JSON string):
      * {"app_id":2554,"app_trans_id":"241224_123456","app_time":1703398400000,
      *  "amount":10000,"embed_data":"{\"orderId\":\"uuid-here\"}","item":"[]",
      *  "zp_trans_id":12345678,"server_time":1703398401000,"channel":38}
+     * Callbacks that can never succeed (unknown order, order no longer PENDING, out of stock) are
+     * acknowledged; any other failure is thrown so the callback is not recorded as handled and ZaloPay retries it.
      */
     @SuppressWarnings("unchecked")
     public void processCallback(String data) {
+        Map<String, Object> callbackData;
         try {
-            Map<String, Object> callbackData = objectMapper.readValue(data, Map.class);
-            
-            String appTransId = (String) callbackData.get("app_trans_id");
-            Long amount = callbackData.get("amount") != null ? 
-                ((Number) callbackData.get("amount")).longValue() : 0L;
-            String zpTransId = callbackData.get("zp_trans_id") != null ?
-                String.valueOf(callbackData.get("zp_trans_id")) : null;
-            
-            log.info("Processing ZaloPay callback: appTransId={}, amount={}, zpTransId={}", 
-                appTransId, amount, zpTransId);
-            
-            // Try to extract orderId from embed_data if available
-            String embedDataStr = (String) callbackData.get("embed_data");
-            String orderId = null;
-            if (embedDataStr != null && !embedDataStr.isEmpty()) {
-                try {
-                    Map<String, Object> embedData = objectMapper.readValue(embedDataStr, Map.class);
-                    orderId = (String) embedData.get("orderId");
-                } catch (Exception e) {
-                    log.warn("Could not parse embed_data: {}", embedDataStr);
-                }
+            callbackData = objectMapper.readValue(data, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new OperationFailedException("ZaloPay callback", "unreadable data: " + e.getOriginalMessage());
+        }
+        
+        String appTransId = (String) callbackData.get("app_trans_id");
+        Long amount = callbackData.get("amount") != null ? 
+            ((Number) callbackData.get("amount")).longValue() : 0L;
+        String zpTransId = callbackData.get("zp_trans_id") != null ?
+            String.valueOf(callbackData.get("zp_trans_id")) : null;
+        
+        log.info("Processing ZaloPay callback: appTransId={}, amount={}, zpTransId={}", 
+            appTransId, amount, zpTransId);
+        
+        // Try to extract orderId from embed_data if available
+        String embedDataStr = (String) callbackData.get("embed_data");
+        String orderId = null;
+        if (embedDataStr != null && !embedDataStr.isEmpty()) {
+            try {
+                Map<String, Object> embedData = objectMapper.readValue(embedDataStr, Map.class);
+                orderId = (String) embedData.get("orderId");
+            } catch (Exception e) {
+                log.warn("Could not parse embed_data: {}", embedDataStr);
             }
-            
-            // Update order status if orderId found
-            if (orderId != null && !orderId.isEmpty()) {
-                try {
-                    UUID orderUuid = UUID.fromString(orderId);
-                    Optional<Order> orderOpt = orderRepository.findById(orderUuid);
-                    if (orderOpt.isPresent()) {
-                        Order order = orderOpt.get();
-                        order.setStatus(OrderStatus.CONFIRMED);
-                        orderRepository.save(order);
-                        log.info("Updated order {} status to CONFIRMED", orderId);
-                        
-                        // Mark voucher as used if promotion was applied
-                        if (order.getPromotion() != null && order.getUser() != null) {
-                            try {
-                                voucherService.markVoucherAsUsed(
-                                    order.getUser().getId().toString(), 
-                                    order.getPromotion().getId()
-                                );
-                                log.info("Marked voucher {} as used for order {}", 
-                                    order.getPromotion().getId(), orderId);
-                            } catch (Exception e) {
-                                log.error("Failed to mark voucher as used for order {}: {}", 
-                                    orderId, e.getMessage());
-                            }
-                        }
-                        // Reserve inventory for confirmed order
-                        for (var item : order.getOrderItems()) {
-                            inventoryService.reserveInventoryForOrder(
-                                item.getProduct().getId(),
-                                item.getQuantity()
-                            );
-                        }
-                        log.info("Reserved inventory for order {}", orderId);
-                        
-                        // Notify admins about new confirmed order (async)
-                        adminNotificationService.notifyNewOrder(
-                            order.getId(),
-                            order.getUser().getFullName(),
-                            order.getTotalAmount()
-                        );
-                        
-                        // Send FCM notification to customer (async - non-blocking)
-                        UUID userId = order.getUser().getId();
-                        String orderIdShort = orderId.substring(orderId.length() - 8).toUpperCase();
-                        notificationService.createNotificationAsync(
-                            userId,
-                            NotificationType.ORDER_UPDATE,
-                            "Thanh toán thành công!",
-                            "Đơn hàng #" + orderIdShort + " đã được thanh toán thành công. Cảm ơn bạn đã mua sắm tại PandQ!",
-                            "pandq://orders/" + orderId
-                        );
-                    } else {
-                        log.warn("Order not found: {}", orderId);
-                    }
-                } catch (IllegalArgumentException e) {
-                    log.warn("Invalid orderId format: {}", orderId);
-                }
-            } else {
-                log.warn("No orderId in callback data, cannot update order status");
+        }
+        
+        // Update order status if orderId found
+        if (orderId == null || orderId.isEmpty()) {
+            log.warn("No orderId in callback data, cannot update order status");
+            return;
+        }
+        UUID orderUuid;
+        try {
+            orderUuid = UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid orderId format: {}", orderId);
+            return;
+        }
+        Optional<Order> orderOpt = orderRepository.findById(orderUuid);
+        if (orderOpt.isEmpty()) {
+            log.warn("Order not found: {}", orderId);
+            return;
+        }
+        Order order = orderOpt.get();
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.info("Order {} is already {}, ignoring callback", orderId, order.getStatus());
+            return;
+        }
+        // Stock is reserved and the customer and admins are notified by the state machine
+        try {
+            orderStateMachine.transition(order.getId(), OrderStatus.CONFIRMED,
+                "Paid with ZaloPay, app_trans_id " + appTransId, ACTOR_ZALOPAY);
+        } catch (ConflictException e) {
+            log.error("Order {} was paid but could not be confirmed: {}", orderId, e.getMessage());
+            adminNotificationService.sendAdminAlert("Đơn hàng đã thanh toán nhưng hết hàng",
+                "Đơn hàng #" + orderId + " đã thanh toán qua ZaloPay nhưng không đủ hàng để xác nhận");
+            return;
+        }
+        log.info("Updated order {} status to CONFIRMED", orderId);
+        
+        // Mark voucher as used if promotion was applied
+        if (order.getPromotion() != null && order.getUser() != null) {
+            try {
+                voucherService.markVoucherAsUsed(
+                    order.getUser().getId().toString(), 
+                    order.getPromotion().getId()
+                );
+                log.info("Marked voucher {} as used for order {}", 
+                    order.getPromotion().getId(), orderId);
+            } catch (Exception e) {
+                log.error("Failed to mark voucher as used for order {}: {}", 
+                    orderId, e.getMessage());
             }
-            
-        } catch (Exception e) {
-            log.error("Error processing ZaloPay callback data", e);
         }
     }
 
@@ -0,0 +1,9 @@
+package pandq.domain.events;
+
+import java.util.UUID;
+
+/**
+ * Published when a branch is created, updated or deleted.
+ */
+public record BranchChangedEvent(UUID branchId) {
+}
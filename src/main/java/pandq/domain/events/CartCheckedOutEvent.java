@@ -0,0 +1,11 @@
+package pandq.domain.events;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Published when an order is placed from a user's cart. The ordered products leave the cart
+ * only once the order has committed.
+ */
+public record CartCheckedOutEvent(UUID userId, Collection<UUID> productIds) {
+}
@@ -0,0 +1,12 @@
+package pandq.domain.events;
+
+import pandq.domain.models.branch.LowStockAlert;
+
+import java.util.List;
+
+/**
+ * Published when inventory rows drop below their minimum stock. Rows already below it are not
+ * reported again until they recover.
+ */
+public record LowStockEvent(List<LowStockAlert> alerts) {
+}
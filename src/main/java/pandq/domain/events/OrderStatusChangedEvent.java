@@ -0,0 +1,25 @@
+package pandq.domain.events;
+
+import pandq.domain.models.enums.OrderStatus;
+import pandq.domain.models.enums.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published once per transaction that changes order statuses, with every change it made.
+ * Carries what the side effects need so listeners running after commit do not load the orders again.
+ */
+public record OrderStatusChangedEvent(List<Change> changes) {
+
+    public record Change(
+            UUID orderId,
+            UUID userId,
+            String customerName,
+            BigDecimal amount,
+            PaymentMethod paymentMethod,
+            OrderStatus from,
+            OrderStatus to) {
+    }
+}
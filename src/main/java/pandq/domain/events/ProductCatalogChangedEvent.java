@@ -0,0 +1,10 @@
+package pandq.domain.events;
+
+import java.util.UUID;
+
+/**
+ * Published when a product is created or deleted, or a field suggestions are built from changes:
+ * name, thumbnail, status or review count. Stock moves publish only {@link ProductChangedEvent}.
+ */
+public record ProductCatalogChangedEvent(UUID productId) {
+}
@@ -0,0 +1,16 @@
+package pandq.domain.events;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published whenever data shown on a product page changes: product fields, rating or stock.
+ * Listeners run after the surrounding transaction commits.
+ */
+public record ProductChangedEvent(Collection<UUID> productIds) {
+
+    public static ProductChangedEvent of(UUID productId) {
+        return new ProductChangedEvent(List.of(productId));
+    }
+}
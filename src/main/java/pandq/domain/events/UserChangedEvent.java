@@ -0,0 +1,10 @@
+package pandq.domain.events;
+
+import java.util.UUID;
+
+/**
+ * Published when identity data of a user changes: profile, role, status or tier.
+ * Listeners run after the surrounding transaction commits.
+ */
+public record UserChangedEvent(UUID userId, String firebaseUid) {
+}
@@ -24,6 +24,7 @@ public class PaginatedResult<T> {
         private int size;
         private long total;
         private int totalPages;
+        private String nextCursor;
     }
 
     public static <T> PaginatedResult<T> of(List<T> data, int page, int size, long total) {
@@ -39,4 +40,17 @@ public class PaginatedResult<T> {
                         .build())
                 .build();
     }
+
+    /**
+     * Keyset (cursor) page: page/total are not computed, the client follows nextCursor until it is null.
+     */
+    public static <T> PaginatedResult<T> ofCursor(List<T> data, int size, String nextCursor) {
+        return PaginatedResult.<T>builder()
+                .data(data)
+                .pagination(PaginationMeta.builder()
+                        .size(size)
+                        .nextCursor(nextCursor)
+                        .build())
+                .build();
+    }
 }
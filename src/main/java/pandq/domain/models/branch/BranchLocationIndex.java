@@ -0,0 +1,106 @@
+package pandq.domain.models.branch;
+
+import pandq.domain.models.enums.BranchStatus;
+import pandq.domain.models.search.SearchTextFolder;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the branches that can ship orders, with their coordinates.
+ *
+ * Branch counts are in the tens, so a coordinate table with a distance per lookup answers
+ * every query faster than maintaining a tree or grid would; rebuild the snapshot when branches change.
+ * Branches without coordinates can still ship but rank after every located branch.
+ */
+public class BranchLocationIndex {
+
+    private record Located(UUID branchId, String foldedAddress, GeoPoint location) {
+    }
+
+    private final Map<UUID, Located> branches = new HashMap<>();
+    private final UUID defaultBranchId;
+
+    private BranchLocationIndex(Collection<Branch> active) {
+        for (Branch branch : active) {
+            GeoPoint location = branch.getLatitude() != null && branch.getLongitude() != null
+                    ? new GeoPoint(branch.getLatitude(), branch.getLongitude())
+                    : null;
+            branches.put(branch.getId(), new Located(branch.getId(), SearchTextFolder.fold(branch.getAddress()), location));
+        }
+        this.defaultBranchId = active.stream()
+                .min(Comparator.comparing(Branch::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Branch::getId))
+                .map(Branch::getId)
+                .orElse(null);
+    }
+
+    /**
+     * Index of the branches that are open or active; closed branches and branches under maintenance
+     * do not ship.
+     */
+    public static BranchLocationIndex of(Collection<Branch> branches) {
+        return new BranchLocationIndex(branches.stream()
+                .filter(branch -> branch.getStatus() == null
+                        || branch.getStatus() == BranchStatus.ACTIVE
+                        || branch.getStatus() == BranchStatus.OPEN)
+                .toList());
+    }
+
+    public boolean ships(UUID branchId) {
+        return branches.containsKey(branchId);
+    }
+
+    /**
+     * Distance from {@code point} to the branch, or infinity if either location is unknown.
+     */
+    public double distanceKm(UUID branchId, GeoPoint point) {
+        Located branch = branches.get(branchId);
+        if (point == null || branch == null || branch.location() == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return branch.location().distanceKm(point);
+    }
+
+    /**
+     * Shipping branches nearest to {@code point} first.
+     */
+    public List<UUID> nearest(GeoPoint point) {
+        return branches.keySet().stream()
+                .sorted(Comparator.comparingDouble((UUID branchId) -> distanceKm(branchId, point))
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    /**
+     * Approximate location of a city: the centre of the located branches whose address names it.
+     */
+    public Optional<GeoPoint> locate(String city) {
+        String folded = SearchTextFolder.fold(city).trim();
+        if (folded.isEmpty()) {
+            return Optional.empty();
+        }
+        List<GeoPoint> matches = branches.values().stream()
+                .filter(branch -> branch.location() != null && branch.foldedAddress().contains(folded))
+                .map(Located::location)
+                .toList();
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new GeoPoint(
+                matches.stream().mapToDouble(GeoPoint::latitude).average().orElseThrow(),
+                matches.stream().mapToDouble(GeoPoint::longitude).average().orElseThrow()));
+    }
+
+    /**
+     * Branch that receives stock entered for a product as a whole: the first shipping branch by name.
+     */
+    public Optional<UUID> defaultBranchId() {
+        return Optional.ofNullable(defaultBranchId);
+    }
+}
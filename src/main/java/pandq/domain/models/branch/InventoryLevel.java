@@ -0,0 +1,9 @@
+package pandq.domain.models.branch;
+
+import java.util.UUID;
+
+/**
+ * Stock of one product at one branch that is not yet reserved.
+ */
+public record InventoryLevel(UUID inventoryId, UUID branchId, UUID productId, int available) {
+}
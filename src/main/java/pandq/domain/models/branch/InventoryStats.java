@@ -0,0 +1,10 @@
+package pandq.domain.models.branch;
+
+import java.math.BigDecimal;
+
+/**
+ * Totals over all inventory rows: stock value at current prices, units in stock, and rows whose
+ * unreserved stock is below their minimum.
+ */
+public record InventoryStats(BigDecimal totalValue, long unitsInStock, long lowStockCount) {
+}
@@ -0,0 +1,34 @@
+package pandq.domain.models.branch;
+
+import java.util.UUID;
+
+/**
+ * An inventory row whose unreserved stock has fallen below its minimum.
+ */
+public record LowStockAlert(UUID inventoryId, UUID productId, String productName, String branchName,
+                            int available, int minStock) {
+
+    public static boolean isLow(Inventory inventory) {
+        return available(inventory) < minStock(inventory);
+    }
+
+    public static LowStockAlert of(Inventory inventory) {
+        return new LowStockAlert(
+                inventory.getId(),
+                inventory.getProduct().getId(),
+                inventory.getProduct().getName(),
+                inventory.getBranch() != null ? inventory.getBranch().getName() : null,
+                available(inventory),
+                minStock(inventory));
+    }
+
+    private static int available(Inventory inventory) {
+        int quantity = inventory.getQuantity() != null ? inventory.getQuantity() : 0;
+        int reserved = inventory.getReservedQuantity() != null ? inventory.getReservedQuantity() : 0;
+        return quantity - reserved;
+    }
+
+    private static int minStock(Inventory inventory) {
+        return inventory.getMinStock() != null ? inventory.getMinStock() : 0;
+    }
+}
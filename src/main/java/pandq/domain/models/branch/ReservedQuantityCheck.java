@@ -0,0 +1,13 @@
+package pandq.domain.models.branch;
+
+import java.util.UUID;
+
+/**
+ * An inventory row's recorded reserved quantity next to what its active orders account for.
+ */
+public record ReservedQuantityCheck(UUID inventoryId, UUID productId, int recorded, int expected) {
+
+    public boolean drifted() {
+        return recorded != expected;
+    }
+}
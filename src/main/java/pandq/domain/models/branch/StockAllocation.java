@@ -0,0 +1,9 @@
+package pandq.domain.models.branch;
+
+import java.util.UUID;
+
+/**
+ * Part of an order item reserved on one inventory row, i.e. the branch it ships from.
+ */
+public record StockAllocation(UUID orderItemId, UUID inventoryId, UUID branchId, UUID productId, int quantity) {
+}
@@ -0,0 +1,128 @@
+package pandq.domain.models.branch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plans which inventory rows ship each order line.
+ *
+ * An order goes out from a single branch when one can cover all of it, the nearest such branch first.
+ * Otherwise each line takes the nearest branch that can cover the line, and a line no single branch
+ * can cover is split across branches nearest first. Plans for several orders share one allocator,
+ * so each order only sees the stock the previous ones left.
+ * Products without any inventory row are not stock-tracked and get no allocation.
+ */
+public class StockAllocator {
+
+    public record Line(UUID orderItemId, UUID productId, int quantity) {
+    }
+
+    /**
+     * @param shortProductIds tracked products the plan could not fully cover
+     */
+    public record Plan(List<StockAllocation> allocations, Set<UUID> shortProductIds) {
+    }
+
+    private static final class Row {
+        private final InventoryLevel level;
+        private int remaining;
+
+        private Row(InventoryLevel level) {
+            this.level = level;
+            this.remaining = Math.max(0, level.available());
+        }
+    }
+
+    private final BranchLocationIndex branches;
+    private final Set<UUID> trackedProductIds = new LinkedHashSet<>();
+    private final Map<UUID, List<Row>> rowsByProduct = new HashMap<>();
+
+    public StockAllocator(BranchLocationIndex branches, Collection<InventoryLevel> levels) {
+        this.branches = branches;
+        for (InventoryLevel level : levels) {
+            trackedProductIds.add(level.productId());
+            if (branches.ships(level.branchId())) {
+                rowsByProduct.computeIfAbsent(level.productId(), productId -> new ArrayList<>()).add(new Row(level));
+            }
+        }
+    }
+
+    public Plan allocate(List<Line> lines, GeoPoint destination) {
+        List<Line> tracked = lines.stream()
+                .filter(line -> trackedProductIds.contains(line.productId()) && line.quantity() > 0)
+                .toList();
+        List<StockAllocation> allocations = new ArrayList<>();
+        Set<UUID> shortProductIds = new LinkedHashSet<>();
+        if (tracked.isEmpty()) {
+            return new Plan(allocations, shortProductIds);
+        }
+
+        Map<UUID, Integer> needed = new LinkedHashMap<>();
+        tracked.forEach(line -> needed.merge(line.productId(), line.quantity(), Integer::sum));
+        for (UUID branchId : branches.nearest(destination)) {
+            if (covers(branchId, needed)) {
+                for (Line line : tracked) {
+                    take(line, rowsAt(line.productId(), branchId), line.quantity(), allocations);
+                }
+                return new Plan(allocations, shortProductIds);
+            }
+        }
+
+        for (Line line : tracked) {
+            List<Row> candidates = new ArrayList<>(rowsByProduct.getOrDefault(line.productId(), List.of()));
+            candidates.sort(Comparator
+                    .comparing((Row row) -> row.remaining < line.quantity())
+                    .thenComparingDouble(row -> branches.distanceKm(row.level.branchId(), destination))
+                    .thenComparing(row -> -row.remaining));
+            int left = take(line, candidates, line.quantity(), allocations);
+            if (left > 0) {
+                shortProductIds.add(line.productId());
+            }
+        }
+        return new Plan(allocations, shortProductIds);
+    }
+
+    private boolean covers(UUID branchId, Map<UUID, Integer> needed) {
+        for (Map.Entry<UUID, Integer> entry : needed.entrySet()) {
+            int available = rowsAt(entry.getKey(), branchId).stream().mapToInt(row -> row.remaining).sum();
+            if (available < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Row> rowsAt(UUID productId, UUID branchId) {
+        return rowsByProduct.getOrDefault(productId, List.of()).stream()
+                .filter(row -> row.level.branchId().equals(branchId))
+                .toList();
+    }
+
+    /**
+     * Take up to {@code quantity} from the rows in order. Returns what could not be taken.
+     */
+    private int take(Line line, List<Row> rows, int quantity, List<StockAllocation> allocations) {
+        int left = quantity;
+        for (Row row : rows) {
+            if (left == 0) {
+                break;
+            }
+            int taken = Math.min(left, row.remaining);
+            if (taken > 0) {
+                row.remaining -= taken;
+                left -= taken;
+                allocations.add(new StockAllocation(line.orderItemId(), row.level.inventoryId(),
+                        row.level.branchId(), line.productId(), taken));
+            }
+        }
+        return left;
+    }
+}
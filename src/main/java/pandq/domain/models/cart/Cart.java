@@ -0,0 +1,62 @@
+package pandq.domain.models.cart;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A user's shopping cart: product quantities in the order they were added.
+ * Immutable; every change returns a new cart with the version bumped, so a stored cart can be
+ * swapped atomically and an older copy never overwrites a newer one.
+ */
+public record Cart(UUID userId, long version, Map<UUID, Integer> items, LocalDateTime updatedAt) {
+
+    public Cart {
+        items = Collections.unmodifiableMap(new LinkedHashMap<>(items));
+    }
+
+    public static Cart empty(UUID userId) {
+        return new Cart(userId, 0L, Map.of(), LocalDateTime.now());
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public int quantityOf(UUID productId) {
+        return items.getOrDefault(productId, 0);
+    }
+
+    /**
+     * Add (or with a negative delta, take away) units of a product; the line is dropped when it reaches zero.
+     */
+    public Cart withQuantityAdded(UUID productId, int delta) {
+        int quantity = quantityOf(productId) + delta;
+        Map<UUID, Integer> next = new LinkedHashMap<>(items);
+        if (quantity > 0) {
+            next.put(productId, quantity);
+        } else {
+            next.remove(productId);
+        }
+        return next(next);
+    }
+
+    public Cart withAllAdded(Map<UUID, Integer> quantities) {
+        Map<UUID, Integer> next = new LinkedHashMap<>(items);
+        quantities.forEach((productId, quantity) -> next.merge(productId, quantity, Integer::sum));
+        next.values().removeIf(quantity -> quantity <= 0);
+        return next(next);
+    }
+
+    public Cart withoutItems(Iterable<UUID> productIds) {
+        Map<UUID, Integer> next = new LinkedHashMap<>(items);
+        productIds.forEach(next::remove);
+        return next.size() == items.size() ? this : next(next);
+    }
+
+    private Cart next(Map<UUID, Integer> nextItems) {
+        return new Cart(userId, version + 1, nextItems, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,7 @@
+package pandq.domain.models.enums;
+
+public enum IdempotencyScope {
+    ORDER_CREATE,
+    ZALOPAY_CALLBACK,
+    SEPAY_WEBHOOK
+}
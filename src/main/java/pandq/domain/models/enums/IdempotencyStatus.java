@@ -0,0 +1,6 @@
+package pandq.domain.models.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
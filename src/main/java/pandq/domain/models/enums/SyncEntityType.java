@@ -0,0 +1,7 @@
+package pandq.domain.models.enums;
+
+public enum SyncEntityType {
+    CATEGORY,
+    BRANCH,
+    PRODUCT
+}
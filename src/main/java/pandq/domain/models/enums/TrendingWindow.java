@@ -0,0 +1,40 @@
+package pandq.domain.models.enums;
+
+import java.time.Duration;
+
+public enum TrendingWindow {
+    HOUR("1h", Duration.ofHours(1)),
+    DAY("24h", Duration.ofHours(24)),
+    WEEK("7d", Duration.ofDays(7));
+
+    private final String code;
+    private final Duration timeConstant;
+
+    TrendingWindow(String code, Duration timeConstant) {
+        this.code = code;
+        this.timeConstant = timeConstant;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Decay time constant: a hit loses ~63% of its weight after one window length
+     */
+    public Duration getTimeConstant() {
+        return timeConstant;
+    }
+
+    public static TrendingWindow fromString(String window) {
+        if (window == null) {
+            return DAY;
+        }
+        for (TrendingWindow value : values()) {
+            if (value.code.equalsIgnoreCase(window) || value.name().equalsIgnoreCase(window)) {
+                return value;
+            }
+        }
+        return DAY;
+    }
+}
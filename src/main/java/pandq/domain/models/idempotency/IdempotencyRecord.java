@@ -0,0 +1,18 @@
+package pandq.domain.models.idempotency;
+
+import pandq.domain.models.enums.IdempotencyScope;
+import pandq.domain.models.enums.IdempotencyStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request seen under an idempotency key, with the response it produced once completed.
+ */
+public record IdempotencyRecord(
+        IdempotencyScope scope,
+        String key,
+        String requestHash,
+        IdempotencyStatus status,
+        String responseBody,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,41 @@
+package pandq.domain.models.product;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Precomputed "frequently bought together" neighbour: one of the top-N products that appear
+ * in the same completed orders as {@code product}, ranked by {@code position}.
+ */
+@Entity
+@Table(name = "product_co_purchases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCoPurchase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "related_product_id", nullable = false)
+    private Product relatedProduct;
+
+    @Column(nullable = false)
+    private Integer score; // Number of completed orders containing both products
+
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,7 @@
+package pandq.domain.models.product;
+
+/**
+ * A search result row: the product with the stats joined in by the search query.
+ */
+public record ProductSearchHit(Product product, ProductStats stats) {
+}
@@ -0,0 +1,36 @@
+package pandq.domain.models.product;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of per-product sales and stock signals.
+ * Stock and units sold are kept current by database triggers on inventory and orders;
+ * the 30-day window and best-seller ranks are refreshed periodically by ProductStatsService.
+ */
+@Entity
+@Table(name = "product_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStats {
+
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Column(nullable = false)
+    private Integer availableStock; // Sum of quantity - reserved_quantity across branches
+
+    @Column(name = "units_sold_30d", nullable = false)
+    private Integer unitsSold30d;
+
+    private Integer bestSellerRank; // 1 = best seller, null when nothing sold in the window
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
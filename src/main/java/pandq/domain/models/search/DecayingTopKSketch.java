@@ -0,0 +1,128 @@
+package pandq.domain.models.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters sketch with exponential time decay.
+ *
+ * Holds at most {@code capacity} counters regardless of how many distinct keys are seen.
+ * Decay uses forward decay against a landmark time: a hit at time t adds
+ * exp((t - landmark) / tau) to its counter, so old counters never need touching on insert.
+ * All counters are rescaled and the landmark moved forward before the exponent grows too large.
+ * Counters are also kept ordered by weight, so finding the smallest one to evict is O(log capacity).
+ */
+public class DecayingTopKSketch {
+
+    private static final double REBASE_EXPONENT = 50.0;
+    private static final double MIN_SCORE = 1e-3;
+
+    private final int capacity;
+    private final double tauMillis;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byWeight = new TreeSet<>(
+            Comparator.comparingDouble((Counter counter) -> counter.weight).thenComparing(counter -> counter.key));
+    private long landmarkMillis;
+
+    // The weight is only changed while the counter is out of byWeight
+    private static final class Counter {
+        private final String key;
+        private double weight;
+        private double error;
+
+        private Counter(String key, double weight, double error) {
+            this.key = key;
+            this.weight = weight;
+            this.error = error;
+        }
+    }
+
+    public DecayingTopKSketch(int capacity, Duration timeConstant, long nowMillis) {
+        this.capacity = capacity;
+        this.tauMillis = timeConstant.toMillis();
+        this.landmarkMillis = nowMillis;
+    }
+
+    public synchronized void add(String key, double count, long nowMillis) {
+        rebaseIfNeeded(nowMillis);
+        double weight = count * Math.exp((nowMillis - landmarkMillis) / tauMillis);
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byWeight.remove(counter);
+            counter.weight += weight;
+            byWeight.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            put(new Counter(key, weight, 0));
+            return;
+        }
+
+        // Space-Saving: the new key takes over the smallest counter and inherits its weight as error
+        Counter min = byWeight.pollFirst();
+        counters.remove(min.key);
+        put(new Counter(key, min.weight + weight, min.weight));
+    }
+
+    /**
+     * Seed a counter from a checkpoint taken at capturedAtMillis; ignored once the sketch is full.
+     */
+    public synchronized void restore(TrendingScore score, long capturedAtMillis, long nowMillis) {
+        rebaseIfNeeded(nowMillis);
+        if (counters.size() >= capacity && !counters.containsKey(score.keyword())) {
+            return;
+        }
+        double scale = Math.exp((capturedAtMillis - landmarkMillis) / tauMillis);
+        Counter previous = counters.remove(score.keyword());
+        if (previous != null) {
+            byWeight.remove(previous);
+        }
+        put(new Counter(score.keyword(), score.score() * scale, score.error() * scale));
+    }
+
+    /**
+     * Top keys by score decayed to nowMillis
+     */
+    public synchronized List<TrendingScore> top(int limit, long nowMillis) {
+        double scale = Math.exp(-(nowMillis - landmarkMillis) / tauMillis);
+        List<TrendingScore> result = new ArrayList<>();
+        Iterator<Counter> heaviest = byWeight.descendingIterator();
+        while (result.size() < limit && heaviest.hasNext()) {
+            Counter counter = heaviest.next();
+            result.add(new TrendingScore(counter.key, counter.weight * scale, counter.error * scale));
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private void rebaseIfNeeded(long nowMillis) {
+        double exponent = (nowMillis - landmarkMillis) / tauMillis;
+        if (exponent < REBASE_EXPONENT) {
+            return;
+        }
+        double scale = Math.exp(-exponent);
+        byWeight.clear();
+        counters.values().forEach(counter -> {
+            counter.weight *= scale;
+            counter.error *= scale;
+        });
+        counters.values().removeIf(counter -> counter.weight < MIN_SCORE);
+        byWeight.addAll(counters.values());
+        landmarkMillis = nowMillis;
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.key, counter);
+        byWeight.add(counter);
+    }
+}
@@ -0,0 +1,191 @@
+package pandq.domain.models.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory prefix index for search-as-you-type.
+ *
+ * Keys live in a sorted map so a prefix is a contiguous key range. Ranking
+ * the whole range is cheap for longer prefixes. The top-K for one and two
+ * character prefixes, whose ranges cover a large part of the catalog, is
+ * precomputed and kept up to date on every write.
+ */
+public class PrefixIndex<T> {
+
+    private static final int HOT_PREFIX_LENGTH = 2;
+
+    /**
+     * An indexed item: matched by any of its (already folded) keys, ranked by weight.
+     */
+    public record Entry<T>(String id, List<String> keys, T value, double weight) {
+    }
+
+    private final int topK;
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+    private final NavigableMap<String, Set<String>> keyIndex = new TreeMap<>();
+    private final Map<String, List<Entry<T>>> hotPrefixes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixIndex(int topK) {
+        this.topK = topK;
+    }
+
+    public List<T> lookup(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.min(limit, topK);
+
+        lock.readLock().lock();
+        try {
+            List<Entry<T>> ranked = prefix.length() <= HOT_PREFIX_LENGTH
+                    ? hotPrefixes.getOrDefault(prefix, List.of())
+                    : rank(prefix, size);
+            return ranked.stream().limit(size).map(Entry::value).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Entry<T> entry) {
+        update(List.of(entry), List.of());
+    }
+
+    public void remove(String id) {
+        update(List.of(), List.of(id));
+    }
+
+    /**
+     * Apply a batch of upserts and removals, refreshing each affected hot prefix once.
+     */
+    public void update(Collection<Entry<T>> upserts, Collection<String> removals) {
+        lock.writeLock().lock();
+        try {
+            Set<String> touched = new HashSet<>();
+            for (String id : removals) {
+                unlink(id, touched);
+            }
+            for (Entry<T> entry : upserts) {
+                unlink(entry.id(), touched);
+                link(entry, touched);
+            }
+            touched.forEach(this::refreshHotPrefix);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Entry<T>> all) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            keyIndex.clear();
+            hotPrefixes.clear();
+            Set<String> touched = new HashSet<>();
+            for (Entry<T> entry : all) {
+                link(entry, touched);
+            }
+            touched.forEach(this::refreshHotPrefix);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<String> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(entries.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void link(Entry<T> entry, Set<String> touched) {
+        entries.put(entry.id(), entry);
+        for (String key : entry.keys()) {
+            if (key.isEmpty()) {
+                continue;
+            }
+            keyIndex.computeIfAbsent(key, k -> new HashSet<>(2)).add(entry.id());
+            collectHotPrefixes(key, touched);
+        }
+    }
+
+    private void unlink(String id, Set<String> touched) {
+        Entry<T> existing = entries.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String key : existing.keys()) {
+            Set<String> ids = keyIndex.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    keyIndex.remove(key);
+                }
+            }
+            collectHotPrefixes(key, touched);
+        }
+    }
+
+    private void collectHotPrefixes(String key, Set<String> touched) {
+        for (int i = 1; i <= Math.min(HOT_PREFIX_LENGTH, key.length()); i++) {
+            touched.add(key.substring(0, i));
+        }
+    }
+
+    private void refreshHotPrefix(String prefix) {
+        List<Entry<T>> ranked = rank(prefix, topK);
+        if (ranked.isEmpty()) {
+            hotPrefixes.remove(prefix);
+        } else {
+            hotPrefixes.put(prefix, ranked);
+        }
+    }
+
+    /**
+     * Top entries by weight among all keys starting with the prefix, each entry counted once.
+     */
+    private List<Entry<T>> rank(String prefix, int limit) {
+        Comparator<Entry<T>> byWeight = Comparator.comparingDouble(Entry::weight);
+        PriorityQueue<Entry<T>> heap = new PriorityQueue<>(byWeight);
+        Set<String> seen = new HashSet<>();
+
+        for (Set<String> ids : keyIndex.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (String id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                heap.offer(entries.get(id));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+
+        List<Entry<T>> result = new ArrayList<>(heap);
+        result.sort(byWeight.reversed());
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package pandq.domain.models.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Diacritic folding shared by product search and autocomplete.
+ * Mirrors the immutable_unaccent() + 'simple' text search config used for products.search_vector,
+ * so "dien thoai" and "điện thoại" fold to the same tokens.
+ */
+public final class SearchTextFolder {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+    private SearchTextFolder() {
+    }
+
+    /**
+     * Lowercase and strip accents, e.g. "Điện Thoại" -> "dien thoai"
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+    }
+
+    /**
+     * Folded alphanumeric tokens of the text
+     */
+    public static List<String> tokens(String text) {
+        return Arrays.stream(NON_WORD.split(fold(text)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,38 @@
+package pandq.domain.models.search;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Checkpoint row of the in-memory trending sketch, so rankings survive restarts.
+ */
+@Entity
+@Table(name = "search_trend_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchTrendSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 10)
+    private String windowName;
+
+    @Column(nullable = false)
+    private String keyword;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false)
+    private Double error;
+
+    @Column(nullable = false)
+    private LocalDateTime capturedAt;
+}
@@ -0,0 +1,7 @@
+package pandq.domain.models.search;
+
+/**
+ * A keyword's decayed hit score; error is the Space-Saving overestimate bound.
+ */
+public record TrendingScore(String keyword, double score, double error) {
+}
@@ -0,0 +1,42 @@
+package pandq.domain.models.sync;
+
+import jakarta.persistence.*;
+import lombok.*;
+import pandq.domain.models.enums.SyncEntityType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Latest change of one synced record. Written only by database triggers on categories,
+ * branches and products, so every writer (services, bulk import, migrations) is tracked.
+ * Deleted records are kept as tombstones so clients can drop them.
+ */
+@Entity
+@Table(name = "sync_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncEntityType entityType;
+
+    @Column(nullable = false)
+    private UUID entityId;
+
+    @Column(nullable = false)
+    private Long version; // Id of the writing transaction offset by 2^40, increases with every change
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
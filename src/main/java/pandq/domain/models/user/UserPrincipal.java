@@ -0,0 +1,43 @@
+package pandq.domain.models.user;
+
+import pandq.domain.enums.AccountStatus;
+import pandq.domain.enums.CustomerTier;
+import pandq.domain.models.enums.Role;
+import pandq.domain.models.enums.UserStatus;
+
+import java.util.UUID;
+
+/**
+ * The identity facts request handling needs about a caller, small enough to cache per user.
+ */
+public record UserPrincipal(
+        UUID id,
+        String firebaseUid,
+        String email,
+        String fullName,
+        String phone,
+        Role role,
+        UserStatus status,
+        AccountStatus accountStatus,
+        CustomerTier customerTier) {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getFirebaseUid(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getPhone(),
+                user.getRole(),
+                user.getStatus(),
+                user.getAccountStatus(),
+                user.getCustomerTier());
+    }
+
+    /**
+     * Name to show for the user, falling back to the email.
+     */
+    public String displayName() {
+        return fullName != null ? fullName : email;
+    }
+}
@@ -0,0 +1,44 @@
+package pandq.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.application.port.repositories.BranchRepository;
+import pandq.domain.events.BranchChangedEvent;
+import pandq.domain.models.branch.BranchLocationIndex;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The current {@link BranchLocationIndex}, built on first use and rebuilt after any branch changes.
+ * Each snapshot remembers the generation it was built for, so one built while a branch was being
+ * changed is never served after the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class BranchLocationCache {
+
+    private record Snapshot(long generation, BranchLocationIndex index) {
+    }
+
+    private final BranchRepository branchRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public BranchLocationIndex get() {
+        long current = generation.get();
+        Snapshot cached = snapshot.get();
+        if (cached != null && cached.generation() == current) {
+            return cached.index();
+        }
+        BranchLocationIndex index = BranchLocationIndex.of(branchRepository.findAll());
+        snapshot.set(new Snapshot(current, index));
+        return index;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBranchChanged(BranchChangedEvent event) {
+        generation.incrementAndGet();
+    }
+}
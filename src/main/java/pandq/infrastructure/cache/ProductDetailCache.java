@@ -0,0 +1,121 @@
+package pandq.infrastructure.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.adapter.web.api.dtos.ProductDTO;
+import pandq.domain.events.ProductChangedEvent;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of assembled product detail responses.
+ * Entries expire after a TTL as a safety net and are invalidated on ProductChangedEvent.
+ * Hit/miss/eviction counts are exported as cache.* metrics with name=product_detail.
+ * A response loaded while an invalidation ran is served to its waiters but not kept, and callers always
+ * get their own copy, so nothing they change leaks into the cached entry.
+ */
+@Component
+public class ProductDetailCache {
+
+    private final Cache<UUID, ProductDTO.Response> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductDetailCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.product-detail.max-size:5000}") long maxSize,
+                              @Value("${app.cache.product-detail.ttl-minutes:10}") long ttlMinutes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "product_detail");
+    }
+
+    /**
+     * Cached response, or load it once even when many requests miss the same product concurrently.
+     */
+    public ProductDTO.Response get(UUID productId, Supplier<ProductDTO.Response> loader) {
+        long loadedAt = generation.get();
+        try {
+            ProductDTO.Response response = cache.get(productId, loader::get);
+            if (generation.get() != loadedAt) {
+                // An invalidation may have run before this entry was stored, so it may hold old data
+                cache.asMap().remove(productId, response);
+            }
+            return copyOf(response);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void invalidate(UUID productId) {
+        generation.incrementAndGet();
+        cache.invalidate(productId);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll(event.productIds());
+    }
+
+    private static ProductDTO.Response copyOf(ProductDTO.Response source) {
+        ProductDTO.Response copy = new ProductDTO.Response();
+        copy.setId(source.getId());
+        copy.setCategoryId(source.getCategoryId());
+        copy.setCategoryName(source.getCategoryName());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setThumbnailUrl(source.getThumbnailUrl());
+        copy.setStatus(source.getStatus());
+        copy.setAverageRating(source.getAverageRating());
+        copy.setReviewCount(source.getReviewCount());
+        copy.setStockQuantity(source.getStockQuantity());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setImages(source.getImages() == null ? null : source.getImages().stream()
+                .map(image -> {
+                    ProductDTO.ProductImageDTO imageCopy = new ProductDTO.ProductImageDTO();
+                    imageCopy.setId(image.getId());
+                    imageCopy.setImageUrl(image.getImageUrl());
+                    imageCopy.setDisplayOrder(image.getDisplayOrder());
+                    return imageCopy;
+                })
+                .collect(Collectors.toList()));
+        copy.setSpecifications(source.getSpecifications() == null ? null : source.getSpecifications().stream()
+                .map(spec -> {
+                    ProductDTO.ProductSpecificationDTO specCopy = new ProductDTO.ProductSpecificationDTO();
+                    specCopy.setSpecKey(spec.getSpecKey());
+                    specCopy.setSpecValue(spec.getSpecValue());
+                    return specCopy;
+                })
+                .collect(Collectors.toList()));
+        copy.setRelatedProducts(source.getRelatedProducts() == null ? null : source.getRelatedProducts().stream()
+                .map(related -> {
+                    ProductDTO.RelatedProductDTO relatedCopy = new ProductDTO.RelatedProductDTO();
+                    relatedCopy.setId(related.getId());
+                    relatedCopy.setName(related.getName());
+                    relatedCopy.setThumbnailUrl(related.getThumbnailUrl());
+                    relatedCopy.setPrice(related.getPrice());
+                    return relatedCopy;
+                })
+                .collect(Collectors.toList()));
+        return copy;
+    }
+}
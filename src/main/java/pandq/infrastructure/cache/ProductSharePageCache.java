@@ -0,0 +1,112 @@
+package pandq.infrastructure.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.adapter.web.api.dtos.ProductDTO;
+import pandq.domain.events.ProductChangedEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of rendered product share pages (/products/{id}) for link-preview bots and crawlers.
+ * Each page is stored with its gzip body precomputed and a strong ETag per encoding derived from the content,
+ * so a repeat hit is a map lookup and a revalidation is a 304 with no body.
+ */
+@Component
+public class ProductSharePageCache {
+
+    /**
+     * A rendered page; the ETag doubles as the page version. The gzip body is a different representation,
+     * so it gets its own ETag; lastModified is when the product was last changed.
+     */
+    public record RenderedPage(byte[] body, byte[] gzippedBody, String etag, String gzipEtag, long lastModified) {
+    }
+
+    private final Cache<UUID, RenderedPage> cache;
+
+    public ProductSharePageCache(MeterRegistry meterRegistry,
+                                 @Value("${app.cache.product-share-page.max-size:2000}") long maxSize,
+                                 @Value("${app.cache.product-share-page.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "product_share_page");
+    }
+
+    public RenderedPage get(UUID productId, Supplier<ProductDTO.Response> loader,
+                            Function<ProductDTO.Response, String> renderer) {
+        try {
+            return cache.get(productId, () -> {
+                ProductDTO.Response product = loader.get();
+                return toRenderedPage(renderer.apply(product), product.getUpdatedAt());
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Runs after ProductDetailCache has dropped the product, so a re-render never reads a stale DTO.
+     */
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidateAll(event.productIds());
+    }
+
+    private RenderedPage toRenderedPage(String html, LocalDateTime updatedAt) {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        long modifiedAt = updatedAt != null
+                ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        // Whole seconds, since Last-Modified has second precision
+        long lastModified = modifiedAt / 1000 * 1000;
+        String hash = sha256(body);
+        return new RenderedPage(body, gzip(body), "\"" + hash + "\"", "\"" + hash + "-gzip\"", lastModified);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
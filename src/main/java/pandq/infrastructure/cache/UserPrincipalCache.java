@@ -0,0 +1,80 @@
+package pandq.infrastructure.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pandq.domain.events.UserChangedEvent;
+import pandq.domain.models.user.UserPrincipal;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of user principals, keyed by both Firebase UID and user id string.
+ * Unknown identifiers are not cached, so a user created on first login resolves immediately.
+ * Entries are invalidated on UserChangedEvent; the TTL only bounds staleness from writes that bypass it.
+ * A principal read before an invalidation ran is not kept, so a lookup racing a user update cannot
+ * put the old principal back.
+ * Hit/miss/eviction counts are exported as cache.* metrics with name=user_principal.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<String, UserPrincipal> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.user-principal.max-size:20000}") long maxSize,
+                              @Value("${app.cache.user-principal.ttl-minutes:30}") long ttlMinutes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "user_principal");
+    }
+
+    public Optional<UserPrincipal> get(String identifier) {
+        return Optional.ofNullable(cache.getIfPresent(identifier));
+    }
+
+    /**
+     * Taken before reading a user from the database and passed to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(UserPrincipal principal, long loadedAt) {
+        cache.put(principal.id().toString(), principal);
+        if (principal.firebaseUid() != null) {
+            cache.put(principal.firebaseUid(), principal);
+        }
+        if (generation.get() != loadedAt) {
+            // An invalidation may have run before these entries were stored, so they may hold old data
+            cache.asMap().remove(principal.id().toString(), principal);
+            if (principal.firebaseUid() != null) {
+                cache.asMap().remove(principal.firebaseUid(), principal);
+            }
+        }
+    }
+
+    public void invalidate(UUID userId, String firebaseUid) {
+        generation.incrementAndGet();
+        cache.invalidate(userId.toString());
+        if (firebaseUid != null) {
+            cache.invalidate(firebaseUid);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId(), event.firebaseUid());
+    }
+}
@@ -0,0 +1,118 @@
+package pandq.infrastructure.cart;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pandq.application.port.repositories.CartRepository;
+import pandq.application.port.services.CartStore;
+import pandq.domain.models.cart.Cart;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Carts held in process and written behind to the carts/cart_items tables.
+ * A cart is loaded from the database on first use; updates swap it atomically in the map and mark it dirty,
+ * and {@link #flush()} writes dirty carts in one transaction. Clean carts idle for longer than the
+ * configured time are dropped from memory and reloaded when needed again.
+ */
+@Component
+@Slf4j
+public class InMemoryCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleMinutes;
+
+    private final ConcurrentHashMap<UUID, Cart> carts = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    public InMemoryCartStore(CartRepository cartRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.cart.idle-minutes:60}") long idleMinutes) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleMinutes = idleMinutes;
+    }
+
+    @Override
+    public Cart get(UUID userId) {
+        Cart cart = carts.get(userId);
+        return cart != null ? cart : loadIntoMap(userId);
+    }
+
+    @Override
+    public Cart update(UUID userId, UnaryOperator<Cart> operation) {
+        Cart updated;
+        do {
+            if (!carts.containsKey(userId)) {
+                loadIntoMap(userId);
+            }
+            // A clean cart evicted between the load and the compute is loaded again
+            updated = carts.computeIfPresent(userId, (id, current) -> operation.apply(current));
+        } while (updated == null);
+        // Marked only after the new cart is visible, so a concurrent flush never misses it
+        dirty.add(userId);
+        return updated;
+    }
+
+    @Override
+    public void flush() {
+        if (!dirty.isEmpty()) {
+            List<Cart> batch = new ArrayList<>();
+            for (UUID userId : dirty) {
+                if (dirty.remove(userId)) {
+                    Cart cart = carts.get(userId);
+                    if (cart != null) {
+                        batch.add(cart);
+                    }
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> cartRepository.saveAll(batch));
+                log.debug("Flushed {} carts", batch.size());
+            } catch (RuntimeException e) {
+                // Mark them again so they are retried on the next flush
+                batch.forEach(cart -> dirty.add(cart.userId()));
+                throw e;
+            }
+        }
+        evictIdle();
+    }
+
+    private void evictIdle() {
+        LocalDateTime idleBefore = LocalDateTime.now().minusMinutes(idleMinutes);
+        for (UUID userId : carts.keySet()) {
+            carts.computeIfPresent(userId, (id, cart) ->
+                    !dirty.contains(id) && cart.updatedAt().isBefore(idleBefore) ? null : cart);
+        }
+    }
+
+    /**
+     * Load a cart from the database outside the map, so a slow query never blocks other carts in the
+     * same map bin; a cart another thread put in meanwhile wins.
+     */
+    private Cart loadIntoMap(UUID userId) {
+        Cart loaded = cartRepository.findByUserId(userId).orElseGet(() -> Cart.empty(userId));
+        Cart existing = carts.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not flush carts on shutdown: {}", e.getMessage());
+        }
+    }
+}
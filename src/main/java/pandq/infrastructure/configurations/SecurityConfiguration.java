@@ -41,6 +41,7 @@ public class SecurityConfiguration {
                                         "/products/**",
                                         "/api/v1/init-config",
                                         "/api/v1/master-data/**",
+                                        "/api/v1/sync",
                                         "/api/v1/products/search",
                                         "/api/v1/products",
                                         "/api/v1/products/{id}",
@@ -6,6 +6,7 @@ import pandq.application.port.repositories.BranchRepository;
 import pandq.domain.models.branch.Branch;
 import pandq.infrastructure.persistence.repositories.jpa.JpaBranchRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +32,11 @@ public class BranchRepositoryImpl implements BranchRepository {
         return jpaBranchRepository.findAll();
     }
 
+    @Override
+    public List<Branch> findAllById(Collection<UUID> ids) {
+        return jpaBranchRepository.findAllById(ids);
+    }
+
     @Override
     public void deleteById(UUID id) {
         jpaBranchRepository.deleteById(id);
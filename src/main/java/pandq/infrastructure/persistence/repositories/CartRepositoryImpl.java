@@ -0,0 +1,108 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.CartRepository;
+import pandq.domain.models.cart.Cart;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class CartRepositoryImpl implements CartRepository {
+
+    private static final String UPSERT_CART_SQL =
+            "INSERT INTO carts (user_id, version, updated_at) VALUES (:userId, :version, :updatedAt) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = EXCLUDED.version, updated_at = EXCLUDED.updated_at " +
+            "WHERE carts.version < EXCLUDED.version";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO cart_items (user_id, product_id, quantity, position) " +
+            "VALUES (:userId, :productId, :quantity, :position)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Cart> findByUserId(UUID userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        List<Cart> headers = jdbcTemplate.query(
+                "SELECT version, updated_at FROM carts WHERE user_id = :userId",
+                params,
+                (rs, rowNum) -> new Cart(userId, rs.getLong("version"), Map.of(),
+                        rs.getTimestamp("updated_at").toLocalDateTime()));
+        if (headers.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<UUID, Integer> items = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT product_id, quantity FROM cart_items WHERE user_id = :userId ORDER BY position",
+                params,
+                rs -> {
+                    items.put(rs.getObject("product_id", UUID.class), rs.getInt("quantity"));
+                });
+        Cart header = headers.get(0);
+        return Optional.of(new Cart(userId, header.version(), items, header.updatedAt()));
+    }
+
+    @Override
+    public void saveAll(Collection<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_CART_SQL, carts.stream()
+                .map(cart -> new MapSqlParameterSource()
+                        .addValue("userId", cart.userId())
+                        .addValue("version", cart.version())
+                        .addValue("updatedAt", Timestamp.valueOf(cart.updatedAt())))
+                .toArray(SqlParameterSource[]::new));
+
+        // Only rewrite items of carts whose header now carries our version; a newer write wins
+        Set<UUID> userIds = carts.stream().map(Cart::userId).collect(Collectors.toSet());
+        Map<UUID, Long> storedVersions = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, version FROM carts WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", userIds),
+                rs -> {
+                    storedVersions.put(rs.getObject("user_id", UUID.class), rs.getLong("version"));
+                });
+        List<Cart> accepted = carts.stream()
+                .filter(cart -> storedVersions.getOrDefault(cart.userId(), -1L) == cart.version())
+                .toList();
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(
+                "DELETE FROM cart_items WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", accepted.stream().map(Cart::userId).toList()));
+
+        List<SqlParameterSource> itemRows = new ArrayList<>();
+        for (Cart cart : accepted) {
+            int position = 0;
+            for (Map.Entry<UUID, Integer> item : cart.items().entrySet()) {
+                itemRows.add(new MapSqlParameterSource()
+                        .addValue("userId", cart.userId())
+                        .addValue("productId", item.getKey())
+                        .addValue("quantity", item.getValue())
+                        .addValue("position", position++));
+            }
+        }
+        if (!itemRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows.toArray(SqlParameterSource[]::new));
+        }
+    }
+}
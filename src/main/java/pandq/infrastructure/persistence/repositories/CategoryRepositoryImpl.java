@@ -6,6 +6,7 @@ import pandq.application.port.repositories.CategoryRepository;
 import pandq.domain.models.product.Category;
 import pandq.infrastructure.persistence.repositories.jpa.JpaCategoryRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +32,11 @@ public class CategoryRepositoryImpl implements CategoryRepository {
         return jpaCategoryRepository.findAll();
     }
 
+    @Override
+    public List<Category> findAllById(Collection<UUID> ids) {
+        return jpaCategoryRepository.findAllById(ids);
+    }
+
     @Override
     public List<Category> findByParentId(UUID parentId) {
         return jpaCategoryRepository.findByParentId(parentId);
@@ -0,0 +1,92 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.IdempotencyRepository;
+import pandq.domain.models.enums.IdempotencyScope;
+import pandq.domain.models.enums.IdempotencyStatus;
+import pandq.domain.models.idempotency.IdempotencyRecord;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepositoryImpl implements IdempotencyRepository {
+
+    // An expired record is taken over in place, so a key can be reused once its TTL has passed
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, created_at, expires_at) " +
+            "VALUES (:scope, :key, :requestHash, 'IN_PROGRESS', :now, :lockedUntil) " +
+            "ON CONFLICT (scope, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "status = EXCLUDED.status, response_body = NULL, created_at = EXCLUDED.created_at, " +
+            "expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < EXCLUDED.created_at";
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE (scope, idempotency_key) IN (" +
+            "SELECT scope, idempotency_key FROM idempotency_keys WHERE expires_at < :now LIMIT :batchSize)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean claim(IdempotencyScope scope, String key, String requestHash,
+                         LocalDateTime now, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = keyParams(scope, key)
+                .addValue("requestHash", requestHash)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("lockedUntil", Timestamp.valueOf(lockedUntil));
+        return jdbcTemplate.update(CLAIM_SQL, params) > 0;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(IdempotencyScope scope, String key, LocalDateTime now) {
+        List<IdempotencyRecord> records = jdbcTemplate.query(
+                "SELECT request_hash, status, response_body, expires_at FROM idempotency_keys " +
+                "WHERE scope = :scope AND idempotency_key = :key AND expires_at >= :now",
+                keyParams(scope, key).addValue("now", Timestamp.valueOf(now)),
+                (rs, rowNum) -> new IdempotencyRecord(
+                        scope,
+                        key,
+                        rs.getString("request_hash"),
+                        IdempotencyStatus.valueOf(rs.getString("status")),
+                        rs.getString("response_body"),
+                        rs.getTimestamp("expires_at").toLocalDateTime()));
+        return records.stream().findFirst();
+    }
+
+    @Override
+    public void complete(IdempotencyScope scope, String key, String responseBody, LocalDateTime expiresAt) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET status = 'COMPLETED', response_body = :responseBody, " +
+                "expires_at = :expiresAt WHERE scope = :scope AND idempotency_key = :key",
+                keyParams(scope, key)
+                        .addValue("responseBody", responseBody)
+                        .addValue("expiresAt", Timestamp.valueOf(expiresAt)));
+    }
+
+    @Override
+    public void release(IdempotencyScope scope, String key) {
+        jdbcTemplate.update(
+                "DELETE FROM idempotency_keys " +
+                "WHERE scope = :scope AND idempotency_key = :key AND status = 'IN_PROGRESS'",
+                keyParams(scope, key));
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime now, int batchSize) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("batchSize", batchSize));
+    }
+
+    private MapSqlParameterSource keyParams(IdempotencyScope scope, String key) {
+        return new MapSqlParameterSource()
+                .addValue("scope", scope.name())
+                .addValue("key", key);
+    }
+}
@@ -1,20 +1,117 @@
 package pandq.infrastructure.persistence.repositories;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 import pandq.application.port.repositories.InventoryRepository;
 import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.branch.InventoryLevel;
+import pandq.domain.models.branch.InventoryStats;
+import pandq.domain.models.branch.LowStockAlert;
+import pandq.domain.models.branch.ReservedQuantityCheck;
+import pandq.domain.models.branch.StockAllocation;
 import pandq.infrastructure.persistence.repositories.jpa.JpaInventoryRepository;
 
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
 public class InventoryRepositoryImpl implements InventoryRepository {
 
+    private static final String AVAILABLE = "quantity - COALESCE(reserved_quantity, 0)";
+
+    // The guard is re-checked against the latest row version if a concurrent update got there first
+    private static final String RESERVE_SQL =
+            "UPDATE inventory SET reserved_quantity = COALESCE(reserved_quantity, 0) + :quantity " +
+            "WHERE id = :inventoryId AND " + AVAILABLE + " >= :quantity";
+
+    private static final String RELEASE_SQL =
+            "UPDATE inventory SET reserved_quantity = GREATEST(0, COALESCE(reserved_quantity, 0) - :quantity) " +
+            "WHERE id = :inventoryId";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE inventory SET quantity = GREATEST(0, quantity - :quantity), " +
+            "reserved_quantity = GREATEST(0, COALESCE(reserved_quantity, 0) - :quantity) " +
+            "WHERE id = :inventoryId";
+
+    private static final String MOST_RESERVED_ROW =
+            "(SELECT id FROM inventory WHERE product_id = :productId " +
+            "ORDER BY COALESCE(reserved_quantity, 0) DESC, id LIMIT 1)";
+
+    private static final String RELEASE_BY_PRODUCT_SQL =
+            "UPDATE inventory SET reserved_quantity = GREATEST(0, COALESCE(reserved_quantity, 0) - :quantity) " +
+            "WHERE id = " + MOST_RESERVED_ROW;
+
+    private static final String COMPLETE_BY_PRODUCT_SQL =
+            "UPDATE inventory SET quantity = GREATEST(0, quantity - :quantity), " +
+            "reserved_quantity = GREATEST(0, COALESCE(reserved_quantity, 0) - :quantity) " +
+            "WHERE id = " + MOST_RESERVED_ROW;
+
+    // Orders confirmed before allocations were recorded reserved on the product's most reserved row
+    private static final String CHECK_RESERVED_SQL = """
+            WITH chunk AS (
+                SELECT id, product_id, COALESCE(reserved_quantity, 0) AS recorded
+                FROM inventory
+                WHERE id > :afterId
+                ORDER BY id
+                LIMIT :limit
+            ),
+            allocated AS (
+                SELECT a.inventory_id, SUM(a.quantity) AS quantity
+                FROM order_item_allocations a
+                JOIN order_items oi ON oi.id = a.order_item_id
+                JOIN orders o ON o.id = oi.order_id
+                WHERE a.inventory_id IN (SELECT id FROM chunk) AND o.status IN ('CONFIRMED', 'SHIPPING')
+                GROUP BY a.inventory_id
+            ),
+            unallocated AS (
+                SELECT oi.product_id, SUM(oi.quantity) AS quantity
+                FROM order_items oi
+                JOIN orders o ON o.id = oi.order_id
+                WHERE oi.product_id IN (SELECT product_id FROM chunk) AND o.status IN ('CONFIRMED', 'SHIPPING')
+                  AND NOT EXISTS (SELECT 1 FROM order_item_allocations a WHERE a.order_item_id = oi.id)
+                GROUP BY oi.product_id
+            ),
+            unallocated_row AS (
+                SELECT DISTINCT ON (i.product_id) i.product_id, i.id
+                FROM inventory i
+                JOIN unallocated u ON u.product_id = i.product_id
+                ORDER BY i.product_id, COALESCE(i.reserved_quantity, 0) DESC, i.id
+            )
+            SELECT c.id, c.product_id, c.recorded,
+                   COALESCE(al.quantity, 0) + COALESCE(u.quantity, 0) AS expected
+            FROM chunk c
+            LEFT JOIN allocated al ON al.inventory_id = c.id
+            LEFT JOIN unallocated_row ur ON ur.id = c.id
+            LEFT JOIN unallocated u ON u.product_id = ur.product_id
+            ORDER BY c.id
+            """;
+
+    // Skipped if a reservation changed the row since it was checked; the next run sees the new value
+    private static final String CORRECT_RESERVED_SQL =
+            "UPDATE inventory SET reserved_quantity = :expected " +
+            "WHERE id = :inventoryId AND COALESCE(reserved_quantity, 0) = :recorded";
+
+    // Reads reserved_quantity under the row lock, so a concurrent reservation is never written over
+    private static final String UPDATE_STOCK_LEVELS_SQL =
+            "UPDATE inventory SET quantity = GREATEST(:quantity, COALESCE(reserved_quantity, 0)), " +
+            "min_stock = COALESCE(:minStock, min_stock) " +
+            "WHERE id = :inventoryId " +
+            "RETURNING quantity, min_stock, reserved_quantity";
+
     private final JpaInventoryRepository jpaInventoryRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
     public Inventory save(Inventory inventory) {
@@ -31,6 +128,22 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return jpaInventoryRepository.findByBranchIdAndProductId(branchId, productId);
     }
 
+    @Override
+    public Inventory updateStockLevels(Inventory inventory, int quantity, Integer minStock) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("inventoryId", inventory.getId())
+                .addValue("quantity", quantity)
+                .addValue("minStock", minStock, Types.INTEGER);
+        return jdbcTemplate.queryForObject(UPDATE_STOCK_LEVELS_SQL, params, (rs, rowNum) -> Inventory.builder()
+                .id(inventory.getId())
+                .branch(inventory.getBranch())
+                .product(inventory.getProduct())
+                .quantity(rs.getInt("quantity"))
+                .minStock(rs.getObject("min_stock", Integer.class))
+                .reservedQuantity(rs.getObject("reserved_quantity", Integer.class))
+                .build());
+    }
+
     @Override
     public List<Inventory> findByBranchId(UUID branchId) {
         return jpaInventoryRepository.findByBranchId(branchId);
@@ -41,11 +154,179 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return jpaInventoryRepository.findByProductId(productId);
     }
 
+    @Override
+    public Map<UUID, Integer> sumQuantityByProductIds(Collection<UUID> productIds) {
+        Map<UUID, Integer> result = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return result;
+        }
+        for (Object[] row : jpaInventoryRepository.sumQuantityByProductIds(productIds)) {
+            result.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<UUID, Integer> sumAvailableQuantityByProductIds(Collection<UUID> productIds) {
+        Map<UUID, Integer> result = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return result;
+        }
+        for (Object[] row : jpaInventoryRepository.sumAvailableQuantityByProductIds(productIds)) {
+            result.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        return result;
+    }
+
     @Override
     public List<Inventory> findAll() {
         return jpaInventoryRepository.findAll();
     }
 
+    @Override
+    public InventoryStats getStats() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(total_value), 0) AS total_value, " +
+                "COALESCE(SUM(units_in_stock), 0) AS units_in_stock, " +
+                "COALESCE(SUM(low_stock_count), 0) AS low_stock_count " +
+                "FROM inventory_stats",
+                new MapSqlParameterSource(),
+                (rs, rowNum) -> new InventoryStats(
+                        rs.getBigDecimal("total_value"),
+                        rs.getLong("units_in_stock"),
+                        rs.getLong("low_stock_count")));
+    }
+
+    @Override
+    public List<InventoryLevel> findLevelsByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(
+                "SELECT id, branch_id, product_id, " + AVAILABLE + " AS available " +
+                "FROM inventory WHERE product_id IN (:productIds)",
+                new MapSqlParameterSource("productIds", productIds),
+                (rs, rowNum) -> new InventoryLevel(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("branch_id", UUID.class),
+                        rs.getObject("product_id", UUID.class),
+                        rs.getInt("available")));
+    }
+
+    @Override
+    public List<LowStockAlert> findLowStockAlerts(Collection<UUID> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(
+                "SELECT i.id, i.product_id, p.name AS product_name, b.name AS branch_name, " +
+                "i.quantity - COALESCE(i.reserved_quantity, 0) AS available, COALESCE(i.min_stock, 0) AS min_stock " +
+                "FROM inventory i " +
+                "JOIN products p ON p.id = i.product_id " +
+                "LEFT JOIN branches b ON b.id = i.branch_id " +
+                "WHERE i.id IN (:inventoryIds) AND i.quantity - COALESCE(i.reserved_quantity, 0) < COALESCE(i.min_stock, 0)",
+                new MapSqlParameterSource("inventoryIds", inventoryIds),
+                (rs, rowNum) -> new LowStockAlert(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("product_id", UUID.class),
+                        rs.getString("product_name"),
+                        rs.getString("branch_name"),
+                        rs.getInt("available"),
+                        rs.getInt("min_stock")));
+    }
+
+    @Override
+    public List<StockAllocation> reserve(List<StockAllocation> allocations) {
+        List<StockAllocation> ordered = byInventoryId(allocations);
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, rowParams(ordered));
+
+        List<StockAllocation> failed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                failed.add(ordered.get(i));
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void release(List<StockAllocation> allocations) {
+        jdbcTemplate.batchUpdate(RELEASE_SQL, rowParams(byInventoryId(allocations)));
+    }
+
+    @Override
+    public void complete(List<StockAllocation> allocations) {
+        jdbcTemplate.batchUpdate(COMPLETE_SQL, rowParams(byInventoryId(allocations)));
+    }
+
+    @Override
+    public void releaseByProduct(Map<UUID, Integer> quantities) {
+        jdbcTemplate.batchUpdate(RELEASE_BY_PRODUCT_SQL, productParams(quantities));
+    }
+
+    @Override
+    public void completeByProduct(Map<UUID, Integer> quantities) {
+        jdbcTemplate.batchUpdate(COMPLETE_BY_PRODUCT_SQL, productParams(quantities));
+    }
+
+    // A fixed row order means concurrent batches lock rows in the same order and cannot deadlock
+    private List<StockAllocation> byInventoryId(List<StockAllocation> allocations) {
+        return allocations.stream()
+                .sorted(Comparator.comparing(StockAllocation::inventoryId))
+                .toList();
+    }
+
+    private SqlParameterSource[] rowParams(List<StockAllocation> allocations) {
+        return allocations.stream()
+                .map(allocation -> new MapSqlParameterSource()
+                        .addValue("inventoryId", allocation.inventoryId())
+                        .addValue("quantity", allocation.quantity()))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private SqlParameterSource[] productParams(Map<UUID, Integer> quantities) {
+        return new TreeMap<>(quantities).entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("productId", entry.getKey())
+                        .addValue("quantity", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    @Override
+    public List<ReservedQuantityCheck> checkReservedQuantities(UUID afterId, int limit) {
+        return jdbcTemplate.query(
+                CHECK_RESERVED_SQL,
+                new MapSqlParameterSource()
+                        .addValue("afterId", afterId)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new ReservedQuantityCheck(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("product_id", UUID.class),
+                        rs.getInt("recorded"),
+                        rs.getInt("expected")));
+    }
+
+    @Override
+    public List<ReservedQuantityCheck> correctReservedQuantities(List<ReservedQuantityCheck> checks) {
+        List<ReservedQuantityCheck> ordered = checks.stream()
+                .sorted(Comparator.comparing(ReservedQuantityCheck::inventoryId))
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(CORRECT_RESERVED_SQL, ordered.stream()
+                .map(check -> new MapSqlParameterSource()
+                        .addValue("inventoryId", check.inventoryId())
+                        .addValue("recorded", check.recorded())
+                        .addValue("expected", check.expected()))
+                .toArray(SqlParameterSource[]::new));
+
+        List<ReservedQuantityCheck> applied = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                applied.add(ordered.get(i));
+            }
+        }
+        return applied;
+    }
+
     @Override
     public void deleteById(UUID id) {
         jpaInventoryRepository.deleteById(id);
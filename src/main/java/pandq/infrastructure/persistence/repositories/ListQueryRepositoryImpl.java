@@ -0,0 +1,412 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pandq.adapter.web.api.dtos.BranchDTO;
+import pandq.adapter.web.api.dtos.CategoryDTO;
+import pandq.adapter.web.api.dtos.InventoryDTO;
+import pandq.adapter.web.api.dtos.OrderDTO;
+import pandq.adapter.web.api.dtos.PromotionDTO;
+import pandq.application.exceptions.BadRequestException;
+import pandq.application.port.repositories.ListQueryRepository;
+import pandq.domain.models.PaginatedResult;
+import pandq.domain.models.enums.BranchStatus;
+import pandq.domain.models.enums.DiscountType;
+import pandq.domain.models.enums.OrderStatus;
+import pandq.domain.models.enums.PaymentMethod;
+import pandq.domain.models.enums.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * JDBC row mappers selecting only the columns each response needs.
+ * Each list is one query (two for orders: headers, then their items), with no entities loaded.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListQueryRepositoryImpl implements ListQueryRepository {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int ITEM_CHUNK_SIZE = 1000;
+
+    private static final String ORDER_HEADER_SQL = """
+            SELECT o.id, o.user_id, u.full_name, u.email, u.phone, o.total_amount, o.shipping_fee,
+                   o.discount_amount, o.final_amount, o.payment_method, o.status, o.shipping_address,
+                   o.shipping_provider, o.tracking_number, o.created_at
+            FROM orders o
+            JOIN users u ON u.id = o.user_id
+            """;
+
+    // The thumbnail is the product's first image by display order
+    private static final String ORDER_ITEM_SQL = """
+            SELECT oi.order_id, oi.product_id, p.name, oi.quantity, oi.price, oi.total_price,
+                   (SELECT pi.image_url FROM product_images pi
+                    WHERE pi.product_id = p.id
+                    ORDER BY pi.display_order NULLS LAST
+                    LIMIT 1) AS image_url
+            FROM order_items oi
+            JOIN products p ON p.id = oi.product_id
+            """;
+
+    private static final String INVENTORY_SQL = """
+            SELECT i.id, i.branch_id, b.name AS branch_name, i.product_id, p.name AS product_name,
+                   p.thumbnail_url, p.price, i.quantity, i.min_stock, i.reserved_quantity,
+                   COALESCE(i.quantity, 0) - COALESCE(i.reserved_quantity, 0) - COALESCE(i.min_stock, 0) AS gap
+            FROM inventory i
+            LEFT JOIN branches b ON b.id = i.branch_id
+            LEFT JOIN products p ON p.id = i.product_id
+            """;
+
+    // Must match the idx_inventory_low_stock definition for the partial index to be used
+    private static final String LOW_STOCK_GAP =
+            "(COALESCE(i.quantity, 0) - COALESCE(i.reserved_quantity, 0) - COALESCE(i.min_stock, 0))";
+    private static final String LOW_STOCK_CONDITION =
+            "COALESCE(i.quantity, 0) - COALESCE(i.reserved_quantity, 0) < COALESCE(i.min_stock, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<CategoryDTO.Response> findAllCategories() {
+        return jdbcTemplate.query("SELECT id, name, description, image_url, parent_id FROM categories", (rs, rowNum) -> {
+            CategoryDTO.Response response = new CategoryDTO.Response();
+            response.setId(rs.getObject("id", UUID.class));
+            response.setName(rs.getString("name"));
+            response.setDescription(rs.getString("description"));
+            response.setImageUrl(rs.getString("image_url"));
+            response.setParentId(rs.getObject("parent_id", UUID.class));
+            return response;
+        });
+    }
+
+    @Override
+    public List<BranchDTO.Response> findAllBranches() {
+        return jdbcTemplate.query(
+                "SELECT id, name, address, phone, latitude, longitude, opening_hours, status FROM branches",
+                (rs, rowNum) -> {
+                    BranchDTO.Response response = new BranchDTO.Response();
+                    response.setId(rs.getObject("id", UUID.class));
+                    response.setName(rs.getString("name"));
+                    response.setAddress(rs.getString("address"));
+                    response.setPhone(rs.getString("phone"));
+                    response.setLatitude(rs.getObject("latitude", Double.class));
+                    response.setLongitude(rs.getObject("longitude", Double.class));
+                    response.setOpeningHours(rs.getString("opening_hours"));
+                    response.setStatus(toEnum(rs.getString("status"), BranchStatus::valueOf));
+                    return response;
+                });
+    }
+
+    @Override
+    public List<PromotionDTO.Response> findAllPromotions() {
+        return jdbcTemplate.query("""
+                SELECT p.id, p.code, p.name, p.description, p.type, p.value, p.max_discount_amount,
+                       p.min_order_value, p.start_date, p.end_date, p.quantity_limit, p.usage_count, p.status,
+                       ARRAY(SELECT c.applicable_category_ids FROM promotion_applicable_categories c
+                             WHERE c.promotion_id = p.id) AS category_ids,
+                       ARRAY(SELECT pr.applicable_product_ids FROM promotion_applicable_products pr
+                             WHERE pr.promotion_id = p.id) AS product_ids
+                FROM promotions p
+                """, (rs, rowNum) -> {
+            PromotionDTO.Response response = new PromotionDTO.Response();
+            response.setId(rs.getObject("id", UUID.class));
+            response.setCode(rs.getString("code"));
+            response.setName(rs.getString("name"));
+            response.setDescription(rs.getString("description"));
+            response.setType(toEnum(rs.getString("type"), DiscountType::valueOf));
+            response.setValue(rs.getBigDecimal("value"));
+            response.setMaxDiscountAmount(rs.getBigDecimal("max_discount_amount"));
+            response.setMinOrderValue(rs.getBigDecimal("min_order_value"));
+            response.setStartDate(rs.getObject("start_date", LocalDateTime.class));
+            response.setEndDate(rs.getObject("end_date", LocalDateTime.class));
+            response.setQuantityLimit(rs.getObject("quantity_limit", Integer.class));
+            response.setUsageCount(rs.getObject("usage_count", Integer.class));
+            response.setStatus(toEnum(rs.getString("status"), Status::valueOf));
+            response.setApplicableCategoryIds(toUuidList(rs.getArray("category_ids")));
+            response.setApplicableProductIds(toUuidList(rs.getArray("product_ids")));
+            return response;
+        });
+    }
+
+    @Override
+    public List<OrderDTO.Response> findAllOrders() {
+        Map<UUID, OrderDTO.Response> orders = new HashMap<>();
+        List<OrderDTO.Response> result = jdbcTemplate.query(ORDER_HEADER_SQL, (rs, rowNum) -> {
+            OrderDTO.Response response = mapOrder(rs);
+            orders.put(response.getId(), response);
+            return response;
+        });
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        // All items in one pass
+        jdbcTemplate.query(ORDER_ITEM_SQL, rs -> {
+            addItem(orders, rs);
+        });
+        return result;
+    }
+
+    @Override
+    public List<OrderDTO.Response> findOrders(UUID userId, OrderStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = orderFilter(userId, status, params);
+        List<OrderDTO.Response> result = jdbcTemplate.query(
+                ORDER_HEADER_SQL + where + " ORDER BY o.created_at DESC, o.id DESC",
+                params,
+                (rs, rowNum) -> mapOrder(rs));
+        attachItems(result);
+        return result;
+    }
+
+    @Override
+    public PaginatedResult<OrderDTO.Response> findOrderPage(OrderDTO.ListRequest request) {
+        int size = Math.min(Math.max(request.getSize() != null ? request.getSize() : 20, 1), MAX_PAGE_SIZE);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder(orderFilter(request.getUserId(), request.getStatus(), params));
+
+        // Seek past the last row of the previous page instead of using OFFSET
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            OrderCursor after = OrderCursor.decode(request.getCursor());
+            where.append(where.isEmpty() ? " WHERE " : " AND ")
+                    .append("(o.created_at, o.id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", after.createdAt());
+            params.addValue("afterId", after.id());
+        }
+        params.addValue("limit", size + 1);
+
+        // Fetch one extra row to know whether another page exists, without a count query
+        List<OrderDTO.Response> rows = jdbcTemplate.query(
+                ORDER_HEADER_SQL + where + " ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+                params,
+                (rs, rowNum) -> mapOrder(rs));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            OrderDTO.Response last = rows.get(size - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        attachItems(rows);
+        return PaginatedResult.ofCursor(rows, size, nextCursor);
+    }
+
+    @Override
+    public PaginatedResult<InventoryDTO.Response> findInventoryPage(UUID branchId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", pageSize + 1);
+        List<String> conditions = new ArrayList<>();
+        if (branchId != null) {
+            conditions.add("i.branch_id = :branchId");
+            params.addValue("branchId", branchId);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            conditions.add("i.id > :afterId");
+            params.addValue("afterId", InventoryCursor.decode(cursor).id());
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+
+        List<InventoryDTO.Response> rows = jdbcTemplate.query(
+                INVENTORY_SQL + where + " ORDER BY i.id LIMIT :limit",
+                params,
+                (rs, rowNum) -> mapInventory(rs));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = new InventoryCursor(0, rows.get(pageSize - 1).getId()).encode();
+        }
+        return PaginatedResult.ofCursor(rows, pageSize, nextCursor);
+    }
+
+    @Override
+    public PaginatedResult<InventoryDTO.Response> findLowStockPage(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", pageSize + 1);
+        String where = " WHERE " + LOW_STOCK_CONDITION;
+        if (cursor != null && !cursor.isBlank()) {
+            InventoryCursor after = InventoryCursor.decode(cursor);
+            where += " AND (" + LOW_STOCK_GAP + ", i.id) > (:afterGap, :afterId)";
+            params.addValue("afterGap", after.gap());
+            params.addValue("afterId", after.id());
+        }
+
+        // Most short first, so the rows needing a restock soonest lead the first page
+        List<InventoryCursor> keys = new ArrayList<>();
+        List<InventoryDTO.Response> rows = jdbcTemplate.query(
+                INVENTORY_SQL + where + " ORDER BY " + LOW_STOCK_GAP + ", i.id LIMIT :limit",
+                params,
+                (rs, rowNum) -> {
+                    keys.add(new InventoryCursor(rs.getInt("gap"), rs.getObject("id", UUID.class)));
+                    return mapInventory(rs);
+                });
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = keys.get(pageSize - 1).encode();
+        }
+        return PaginatedResult.ofCursor(rows, pageSize, nextCursor);
+    }
+
+    private int pageSize(Integer size) {
+        return Math.min(Math.max(size != null ? size : 20, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * WHERE clause for the given filters; equality columns lead the (user_id|status, created_at, id) indexes.
+     */
+    private String orderFilter(UUID userId, OrderStatus status, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (userId != null) {
+            conditions.add("o.user_id = :userId");
+            params.addValue("userId", userId);
+        }
+        if (status != null) {
+            conditions.add("o.status = :status");
+            params.addValue("status", status.name());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Items of the given orders, in id chunks so the IN list stays bounded.
+     */
+    private void attachItems(List<OrderDTO.Response> result) {
+        Map<UUID, OrderDTO.Response> orders = new HashMap<>();
+        result.forEach(order -> orders.put(order.getId(), order));
+        List<UUID> orderIds = new ArrayList<>(orders.keySet());
+        for (int from = 0; from < orderIds.size(); from += ITEM_CHUNK_SIZE) {
+            List<UUID> chunk = orderIds.subList(from, Math.min(from + ITEM_CHUNK_SIZE, orderIds.size()));
+            jdbcTemplate.query(
+                    ORDER_ITEM_SQL + " WHERE oi.order_id IN (:orderIds)",
+                    new MapSqlParameterSource("orderIds", chunk),
+                    rs -> {
+                        addItem(orders, rs);
+                    });
+        }
+    }
+
+    private void addItem(Map<UUID, OrderDTO.Response> orders, ResultSet rs) throws SQLException {
+        OrderDTO.Response order = orders.get(rs.getObject("order_id", UUID.class));
+        if (order == null) {
+            return; // Order inserted after the header query
+        }
+        OrderDTO.OrderItemResponse item = new OrderDTO.OrderItemResponse();
+        item.setProductId(rs.getObject("product_id", UUID.class));
+        item.setProductName(rs.getString("name"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setPrice(rs.getBigDecimal("price"));
+        item.setTotalPrice(rs.getBigDecimal("total_price"));
+        item.setImageUrl(rs.getString("image_url"));
+        order.getItems().add(item);
+    }
+
+    private OrderDTO.Response mapOrder(ResultSet rs) throws SQLException {
+        OrderDTO.Response response = new OrderDTO.Response();
+        response.setId(rs.getObject("id", UUID.class));
+        response.setUserId(rs.getObject("user_id", UUID.class).toString());
+        String fullName = rs.getString("full_name");
+        response.setCustomerName(fullName != null ? fullName : rs.getString("email"));
+        response.setCustomerPhone(rs.getString("phone"));
+        response.setTotalAmount(rs.getBigDecimal("total_amount"));
+        response.setShippingFee(rs.getBigDecimal("shipping_fee"));
+        response.setDiscountAmount(rs.getBigDecimal("discount_amount"));
+        response.setFinalAmount(rs.getBigDecimal("final_amount"));
+        response.setPaymentMethod(toEnum(rs.getString("payment_method"), PaymentMethod::valueOf));
+        response.setStatus(toEnum(rs.getString("status"), OrderStatus::valueOf));
+        response.setShippingAddress(rs.getString("shipping_address"));
+        response.setShippingProvider(rs.getString("shipping_provider"));
+        response.setTrackingNumber(rs.getString("tracking_number"));
+        response.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        response.setItems(new ArrayList<>());
+        return response;
+    }
+
+    private InventoryDTO.Response mapInventory(ResultSet rs) throws SQLException {
+        InventoryDTO.Response response = new InventoryDTO.Response();
+        response.setId(rs.getObject("id", UUID.class));
+        response.setBranchId(rs.getObject("branch_id", UUID.class));
+        response.setBranchName(rs.getString("branch_name"));
+        UUID productId = rs.getObject("product_id", UUID.class);
+        response.setProductId(productId);
+        response.setProductName(rs.getString("product_name"));
+        response.setProductThumbnail(rs.getString("thumbnail_url"));
+        response.setProductSku("SKU-" + productId.toString().substring(0, 8).toUpperCase());
+        response.setProductPrice(rs.getBigDecimal("price"));
+        response.setQuantity(rs.getObject("quantity", Integer.class));
+        response.setMinStock(rs.getObject("min_stock", Integer.class));
+        response.setReservedQuantity(rs.getObject("reserved_quantity", Integer.class));
+        return response;
+    }
+
+    private static <E> E toEnum(String value, Function<String, E> valueOf) {
+        return value != null ? valueOf.apply(value) : null;
+    }
+
+    private static List<UUID> toUuidList(Array array) throws SQLException {
+        if (array == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList((UUID[]) array.getArray()));
+    }
+
+    private record OrderCursor(LocalDateTime createdAt, UUID id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                if (parts.length != 2) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                return new OrderCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+
+    /**
+     * Position of the last inventory row on a page. The gap below minimum stock only orders low-stock pages.
+     */
+    private record InventoryCursor(int gap, UUID id) {
+
+        String encode() {
+            String raw = gap + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static InventoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                if (parts.length != 2) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                return new InventoryCursor(Integer.parseInt(parts[0]), UUID.fromString(parts[1]));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import pandq.domain.models.enums.OrderStatus;
 import pandq.domain.models.order.Order;
 import pandq.infrastructure.persistence.repositories.jpa.JpaOrderRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,7 +25,12 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     @Override
     public Optional<Order> findById(UUID id) {
-        return jpaOrderRepository.findById(id);
+        return jpaOrderRepository.findWithItemsById(id);
+    }
+
+    @Override
+    public List<Order> findAllWithItemsById(Collection<UUID> ids) {
+        return jpaOrderRepository.findWithItemsByIdIn(ids);
     }
 
     @Override
@@ -0,0 +1,51 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.OrderStatusHistoryRepository;
+import pandq.domain.models.order.OrderStatusHistory;
+import pandq.infrastructure.persistence.repositories.jpa.JpaOrderStatusHistoryRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderStatusHistoryRepositoryImpl implements OrderStatusHistoryRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_status_history (id, order_id, status, description, created_at, created_by) " +
+            "VALUES (:id, :orderId, :status, :description, :createdAt, :createdBy)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JpaOrderStatusHistoryRepository jpaOrderStatusHistoryRepository;
+
+    @Override
+    public void saveAll(Collection<OrderStatusHistory> history) {
+        if (history.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = history.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("id", entry.getId() != null ? entry.getId() : UUID.randomUUID())
+                        .addValue("orderId", entry.getOrder().getId())
+                        .addValue("status", entry.getStatus().name())
+                        .addValue("description", entry.getDescription())
+                        .addValue("createdAt", Timestamp.valueOf(entry.getCreatedAt() != null ? entry.getCreatedAt() : now))
+                        .addValue("createdBy", entry.getCreatedBy()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    @Override
+    public List<OrderStatusHistory> findByOrderId(UUID orderId) {
+        return jpaOrderStatusHistoryRepository.findByOrderIdOrderByCreatedAtAsc(orderId);
+    }
+}
@@ -0,0 +1,108 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.ProductCoPurchaseRepository;
+import pandq.domain.models.product.ProductCoPurchase;
+import pandq.infrastructure.persistence.repositories.jpa.JpaProductCoPurchaseRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductCoPurchaseRepositoryImpl implements ProductCoPurchaseRepository {
+
+    private final JpaProductCoPurchaseRepository jpaRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ProductCoPurchase> findByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaRepository.findByProductIds(productIds);
+    }
+
+    /**
+     * Products in orders changed since the given time, whatever their status now: an order that
+     * completed adds co-purchases, one that left COMPLETED (e.g. refunded) takes them away.
+     */
+    @Override
+    public List<UUID> findProductIdsInOrdersChangedSince(LocalDateTime since) {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT oi.product_id
+                FROM orders o
+                JOIN order_items oi ON oi.order_id = o.id
+                WHERE o.updated_at > :since
+                """, Map.of("since", since), UUID.class);
+    }
+
+    @Override
+    public List<UUID> findAllCompletedOrderProductIds() {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT oi.product_id
+                FROM orders o
+                JOIN order_items oi ON oi.order_id = o.id
+                WHERE o.status = 'COMPLETED'
+                """, Map.of(), UUID.class);
+    }
+
+    @Override
+    public int deleteProductsWithoutCompletedOrders() {
+        return jdbcTemplate.update("""
+                DELETE FROM product_co_purchases pcp
+                WHERE NOT EXISTS (
+                    SELECT 1
+                    FROM order_items oi
+                    JOIN orders o ON o.id = oi.order_id AND o.status = 'COMPLETED'
+                    WHERE oi.product_id = pcp.product_id
+                )
+                """, Map.of());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findLastComputedAt() {
+        return Optional.ofNullable(jpaRepository.findLastComputedAt());
+    }
+
+    /**
+     * Rebuild the neighbour lists of the given products from their co-occurrence counts
+     * across all completed orders. Idempotent, so overlapping refreshes are harmless.
+     */
+    @Override
+    public void recompute(Collection<UUID> productIds, int topN, LocalDateTime computedAt) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("productIds", productIds)
+                .addValue("topN", topN)
+                .addValue("computedAt", computedAt);
+
+        jdbcTemplate.update("DELETE FROM product_co_purchases WHERE product_id IN (:productIds)", params);
+        jdbcTemplate.update("""
+                INSERT INTO product_co_purchases (id, product_id, related_product_id, score, position, computed_at)
+                SELECT gen_random_uuid(), product_id, related_product_id, score, position, :computedAt
+                FROM (
+                    SELECT a.product_id, b.product_id AS related_product_id,
+                           COUNT(DISTINCT a.order_id) AS score,
+                           ROW_NUMBER() OVER (PARTITION BY a.product_id
+                                              ORDER BY COUNT(DISTINCT a.order_id) DESC, b.product_id) AS position
+                    FROM order_items a
+                    JOIN orders o ON o.id = a.order_id AND o.status = 'COMPLETED'
+                    JOIN order_items b ON b.order_id = a.order_id AND b.product_id <> a.product_id
+                    WHERE a.product_id IN (:productIds)
+                    GROUP BY a.product_id, b.product_id
+                ) ranked
+                WHERE position <= :topN
+                """, params);
+    }
+}
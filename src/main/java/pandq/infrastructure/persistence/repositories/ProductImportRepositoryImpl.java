@@ -0,0 +1,100 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.ProductImportRepository;
+import pandq.domain.models.branch.Inventory;
+import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC batch inserts for bulk catalog loads, bypassing the persistence context.
+ * Ids are assigned by the caller so child rows can reference their product in the same batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepositoryImpl implements ProductImportRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertBatch(List<Product> products, List<Inventory> inventories) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        List<SqlParameterSource> productRows = new ArrayList<>(products.size());
+        List<SqlParameterSource> imageRows = new ArrayList<>();
+        List<SqlParameterSource> specificationRows = new ArrayList<>();
+        for (Product product : products) {
+            productRows.add(new MapSqlParameterSource()
+                    .addValue("id", product.getId())
+                    .addValue("categoryId", product.getCategory().getId())
+                    .addValue("name", product.getName())
+                    .addValue("description", product.getDescription())
+                    .addValue("price", product.getPrice())
+                    .addValue("costPrice", product.getCostPrice())
+                    .addValue("thumbnailUrl", product.getThumbnailUrl())
+                    .addValue("status", product.getStatus() != null ? product.getStatus().name() : null)
+                    .addValue("createdAt", product.getCreatedAt()));
+            if (product.getImages() != null) {
+                for (ProductImage image : product.getImages()) {
+                    imageRows.add(new MapSqlParameterSource()
+                            .addValue("id", UUID.randomUUID())
+                            .addValue("productId", product.getId())
+                            .addValue("imageUrl", image.getImageUrl())
+                            .addValue("displayOrder", image.getDisplayOrder()));
+                }
+            }
+            if (product.getSpecifications() != null) {
+                for (ProductSpecification specification : product.getSpecifications()) {
+                    specificationRows.add(new MapSqlParameterSource()
+                            .addValue("id", UUID.randomUUID())
+                            .addValue("productId", product.getId())
+                            .addValue("specKey", specification.getSpecKey())
+                            .addValue("specValue", specification.getSpecValue()));
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO products (id, category_id, name, description, price, cost_price, thumbnail_url, status, created_at, updated_at)
+                VALUES (:id, :categoryId, :name, :description, :price, :costPrice, :thumbnailUrl, :status, :createdAt, :createdAt)
+                """, productRows.toArray(new SqlParameterSource[0]));
+
+        if (!imageRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO product_images (id, product_id, image_url, display_order)
+                    VALUES (:id, :productId, :imageUrl, :displayOrder)
+                    """, imageRows.toArray(new SqlParameterSource[0]));
+        }
+        if (!specificationRows.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO product_specifications (id, product_id, spec_key, spec_value)
+                    VALUES (:id, :productId, :specKey, :specValue)
+                    """, specificationRows.toArray(new SqlParameterSource[0]));
+        }
+        if (!inventories.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO inventory (id, branch_id, product_id, quantity, min_stock, reserved_quantity)
+                    VALUES (:id, :branchId, :productId, :quantity, :minStock, :reservedQuantity)
+                    """, inventories.stream()
+                    .map(inventory -> new MapSqlParameterSource()
+                            .addValue("id", UUID.randomUUID())
+                            .addValue("branchId", inventory.getBranch().getId())
+                            .addValue("productId", inventory.getProduct().getId())
+                            .addValue("quantity", inventory.getQuantity())
+                            .addValue("minStock", inventory.getMinStock())
+                            .addValue("reservedQuantity", inventory.getReservedQuantity()))
+                    .toArray(SqlParameterSource[]::new));
+        }
+    }
+}
@@ -1,28 +1,58 @@
 package pandq.infrastructure.persistence.repositories;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import pandq.adapter.web.api.dtos.ProductDTO;
 import pandq.adapter.web.api.dtos.ProductSearchDTO;
+import pandq.application.exceptions.BadRequestException;
 import pandq.application.port.repositories.ProductRepository;
+import pandq.domain.models.PaginatedResult;
 import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSearchHit;
+import pandq.domain.models.product.ProductSpecification;
+import pandq.domain.models.product.ProductStats;
+import pandq.domain.models.search.SearchTextFolder;
 import pandq.infrastructure.persistence.repositories.jpa.JpaProductRepository;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 public class ProductRepositoryImpl implements ProductRepository {
 
+    private static final int MAX_LISTING_SIZE = 100;
+    private static final long[] PRICE_BUCKET_BOUNDS = {1_000_000L, 5_000_000L, 10_000_000L, 20_000_000L};
+    private static final int MAX_RATING_BUCKET = 4;
+
     private final JpaProductRepository jpaProductRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
     public Product save(Product product) {
@@ -36,7 +66,15 @@ public class ProductRepositoryImpl implements ProductRepository {
 
     @Override
     public List<Product> findAll() {
-        return jpaProductRepository.findAll();
+        return jpaProductRepository.findAllWithCategory();
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaProductRepository.findAllWithCategoryByIdIn(ids);
     }
 
     @Override
@@ -49,60 +87,362 @@ public class ProductRepositoryImpl implements ProductRepository {
         jpaProductRepository.deleteById(id);
     }
 
+    /**
+     * One native query serves both text search and filter-only browsing, so product_stats
+     * is joined in for stock, the in-stock filter and best-seller sorting at no per-row cost.
+     */
     @Override
-    public Page<Product> search(ProductSearchDTO.SearchRequest request) {
-        Specification<Product> spec = buildSearchSpecification(request);
-        Pageable pageable = buildPageable(request);
-        return jpaProductRepository.findAll(spec, pageable);
+    public Page<ProductSearchHit> search(ProductSearchDTO.SearchRequest request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 20;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", size)
+                .addValue("offset", (long) page * size);
+
+        StringBuilder where = new StringBuilder("WHERE TRUE");
+        String tsQuery = buildTsQuery(request.getQuery());
+        if (tsQuery != null) {
+            where.append(" AND p.search_vector @@ to_tsquery('simple', :tsQuery)");
+            params.addValue("tsQuery", tsQuery);
+        } else if (hasQuery(request)) {
+            // Only punctuation or characters the folder drops: nothing can match
+            where.append(" AND FALSE");
+        }
+        if (request.getCategoryId() != null) {
+            where.append(" AND p.category_id = :categoryId");
+            params.addValue("categoryId", request.getCategoryId());
+        }
+        if (request.getMinPrice() != null) {
+            where.append(" AND p.price >= :minPrice");
+            params.addValue("minPrice", request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            where.append(" AND p.price <= :maxPrice");
+            params.addValue("maxPrice", request.getMaxPrice());
+        }
+        if (request.getMinRating() != null && request.getMinRating() > 0) {
+            where.append(" AND p.average_rating >= :minRating");
+            params.addValue("minRating", request.getMinRating());
+        }
+        if (Boolean.TRUE.equals(request.getInStockOnly())) {
+            where.append(" AND COALESCE(s.available_stock, 0) > 0");
+        }
+
+        String orderBy = switch (request.getSortBy() != null ? request.getSortBy() : "newest") {
+            case "relevance" -> tsQuery != null
+                    ? "ts_rank(p.search_vector, to_tsquery('simple', :tsQuery)) DESC, p.id"
+                    : "p.created_at DESC, p.id";
+            case "price_asc" -> "p.price ASC, p.id";
+            case "price_desc" -> "p.price DESC, p.id";
+            case "rating" -> "p.average_rating DESC NULLS LAST, p.id";
+            case "best_selling" -> "s.best_seller_rank ASC NULLS LAST, p.created_at DESC, p.id";
+            default -> "p.created_at DESC, p.id";
+        };
+
+        String from = "FROM products p LEFT JOIN product_stats s ON s.product_id = p.id ";
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) " + from + where, params, Long.class);
+        List<ProductStats> rows = jdbcTemplate.query(
+                "SELECT p.id, s.available_stock, s.units_sold_30d, s.best_seller_rank " + from + where
+                        + " ORDER BY " + orderBy + " LIMIT :limit OFFSET :offset",
+                params,
+                (rs, rowNum) -> ProductStats.builder()
+                        .productId(rs.getObject("id", UUID.class))
+                        .availableStock(rs.getInt("available_stock"))
+                        .unitsSold30d(rs.getInt("units_sold_30d"))
+                        .bestSellerRank(rs.getObject("best_seller_rank", Integer.class))
+                        .build());
+
+        // Load the page's entities in one query and restore the ranked order
+        Map<UUID, Product> productsById = rows.isEmpty()
+                ? Map.of()
+                : jpaProductRepository.findAllWithCategoryByIdIn(rows.stream().map(ProductStats::getProductId).toList()).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductSearchHit> hits = rows.stream()
+                .filter(stats -> productsById.containsKey(stats.getProductId()))
+                .map(stats -> new ProductSearchHit(productsById.get(stats.getProductId()), stats))
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(hits, PageRequest.of(page, size), total != null ? total : 0);
     }
 
-    private Specification<Product> buildSearchSpecification(ProductSearchDTO.SearchRequest request) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+    /**
+     * All facets in one aggregate over the rows matching the text query and stock filter. The other filters are
+     * evaluated per row as flags, and each facet's count skips its own flag.
+     */
+    @Override
+    public ProductSearchDTO.Facets searchFacets(ProductSearchDTO.SearchRequest request) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
 
-            // Search by query (name or description)
-            if (request.getQuery() != null && !request.getQuery().isBlank()) {
-                String searchPattern = "%" + request.getQuery().toLowerCase() + "%";
-                Predicate namePredicate = criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("name")), searchPattern);
-                Predicate descPredicate = criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("description")), searchPattern);
-                predicates.add(criteriaBuilder.or(namePredicate, descPredicate));
-            }
+        List<String> baseConditions = new ArrayList<>(List.of("TRUE"));
+        String tsQuery = buildTsQuery(request.getQuery());
+        if (tsQuery != null) {
+            baseConditions.add("p.search_vector @@ to_tsquery('simple', :tsQuery)");
+            params.addValue("tsQuery", tsQuery);
+        } else if (hasQuery(request)) {
+            baseConditions.add("FALSE");
+        }
+        if (Boolean.TRUE.equals(request.getInStockOnly())) {
+            baseConditions.add("COALESCE(s.available_stock, 0) > 0");
+        }
 
-            // Filter by category
-            if (request.getCategoryId() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("category").get("id"), request.getCategoryId()));
-            }
+        String inCategory = "TRUE";
+        if (request.getCategoryId() != null) {
+            inCategory = "p.category_id = :categoryId";
+            params.addValue("categoryId", request.getCategoryId());
+        }
+        List<String> priceConditions = new ArrayList<>();
+        if (request.getMinPrice() != null) {
+            priceConditions.add("p.price >= :minPrice");
+            params.addValue("minPrice", request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            priceConditions.add("p.price <= :maxPrice");
+            params.addValue("maxPrice", request.getMaxPrice());
+        }
+        String inPrice = priceConditions.isEmpty() ? "TRUE" : String.join(" AND ", priceConditions);
+        String inRating = "TRUE";
+        if (request.getMinRating() != null && request.getMinRating() > 0) {
+            inRating = "p.average_rating >= :minRating";
+            params.addValue("minRating", request.getMinRating());
+        }
 
-            // Filter by price range
-            if (request.getMinPrice() != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+        String bounds = Arrays.stream(PRICE_BUCKET_BOUNDS).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        String sql = """
+                WITH matched AS (
+                    SELECT p.category_id, c.name AS category_name,
+                           width_bucket(p.price, ARRAY[%s]::numeric[]) AS price_bucket,
+                           LEAST(FLOOR(COALESCE(p.average_rating, 0)), %d)::int AS rating_bucket,
+                           (%s) AS in_category, (%s) AS in_price, (%s) AS in_rating
+                    FROM products p
+                    LEFT JOIN categories c ON c.id = p.category_id
+                    LEFT JOIN product_stats s ON s.product_id = p.id
+                    WHERE %s
+                )
+                SELECT GROUPING(category_id, category_name) = 0 AS by_category,
+                       GROUPING(price_bucket) = 0 AS by_price,
+                       category_id, category_name, price_bucket, rating_bucket,
+                       COUNT(*) FILTER (WHERE in_price AND in_rating) AS category_count,
+                       COUNT(*) FILTER (WHERE in_category AND in_rating) AS price_count,
+                       COUNT(*) FILTER (WHERE in_category AND in_price) AS rating_count
+                FROM matched
+                GROUP BY GROUPING SETS ((category_id, category_name), (price_bucket), (rating_bucket))
+                """.formatted(bounds, MAX_RATING_BUCKET, inCategory, inPrice, inRating,
+                String.join(" AND ", baseConditions));
+
+        long[] priceCounts = new long[PRICE_BUCKET_BOUNDS.length + 1];
+        long[] ratingCounts = new long[MAX_RATING_BUCKET + 1];
+        ProductSearchDTO.Facets facets = new ProductSearchDTO.Facets();
+
+        jdbcTemplate.query(sql, params, rs -> {
+            if (rs.getBoolean("by_category")) {
+                long count = rs.getLong("category_count");
+                if (count > 0) {
+                    ProductSearchDTO.CategoryFacet facet = new ProductSearchDTO.CategoryFacet();
+                    facet.setCategoryId(rs.getObject("category_id", UUID.class));
+                    facet.setCategoryName(rs.getString("category_name"));
+                    facet.setCount(count);
+                    facets.getCategories().add(facet);
+                }
+            } else if (rs.getBoolean("by_price")) {
+                priceCounts[rs.getInt("price_bucket")] = rs.getLong("price_count");
+            } else {
+                ratingCounts[rs.getInt("rating_bucket")] = rs.getLong("rating_count");
             }
-            if (request.getMaxPrice() != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+        });
+
+        facets.getCategories().sort(Comparator.comparingLong(ProductSearchDTO.CategoryFacet::getCount).reversed());
+        for (int i = 0; i < priceCounts.length; i++) {
+            ProductSearchDTO.PriceBucket bucket = new ProductSearchDTO.PriceBucket();
+            bucket.setMinPrice(i > 0 ? BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[i - 1]) : null);
+            bucket.setMaxPrice(i < PRICE_BUCKET_BOUNDS.length ? BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[i]) : null);
+            bucket.setCount(priceCounts[i]);
+            facets.getPriceBuckets().add(bucket);
+        }
+        // Rating buckets are cumulative ("4 stars & up") to match the minRating filter
+        long atLeast = 0;
+        for (int rating = MAX_RATING_BUCKET; rating >= 1; rating--) {
+            atLeast += ratingCounts[rating];
+            ProductSearchDTO.RatingBucket bucket = new ProductSearchDTO.RatingBucket();
+            bucket.setMinRating(rating);
+            bucket.setCount(atLeast);
+            facets.getRatingBuckets().add(bucket);
+        }
+        return facets;
+    }
+
+    @Override
+    public PaginatedResult<Product> findListing(ProductDTO.ListingRequest request) {
+        String sortBy = normalizeListingSort(request.getSortBy());
+        int size = Math.min(Math.max(request.getSize() != null ? request.getSize() : 20, 1), MAX_LISTING_SIZE);
+        ListingCursor after = request.getCursor() != null && !request.getCursor().isBlank()
+                ? ListingCursor.decode(request.getCursor(), sortBy)
+                : null;
+
+        // Fetch one extra row to know whether another page exists, without a count query
+        Specification<Product> spec = buildListingSpecification(request.getCategoryId(), sortBy, after);
+        List<Product> rows = jpaProductRepository.findBy(spec, query -> query.limit(size + 1).all());
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            Product last = rows.get(size - 1);
+            nextCursor = new ListingCursor(sortBy, listingSortValue(last, sortBy), last.getId()).encode();
+        }
+        return PaginatedResult.ofCursor(rows, size, nextCursor);
+    }
+
+    @Override
+    public List<ProductImage> findImagesByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaProductRepository.findImagesByProductIds(productIds);
+    }
+
+    @Override
+    public List<ProductSpecification> findSpecificationsByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jpaProductRepository.findSpecificationsByProductIds(productIds);
+    }
+
+    @Override
+    public Map<UUID, List<Product>> findRelatedProductsByProductIds(Collection<UUID> productIds) {
+        Map<UUID, List<Product>> result = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return result;
+        }
+        for (Object[] row : jpaProductRepository.findRelatedProductPairs(productIds)) {
+            result.computeIfAbsent((UUID) row[0], k -> new ArrayList<>()).add((Product) row[1]);
+        }
+        return result;
+    }
+
+    private static boolean hasQuery(ProductSearchDTO.SearchRequest request) {
+        return request.getQuery() != null && !request.getQuery().isBlank();
+    }
+
+    /**
+     * Prefix-match every folded token, e.g. "Điện thoại" -> "dien:* & thoai:*".
+     * Tokens are [a-z0-9] only, so the result is always a valid tsquery; null when the query has no tokens.
+     */
+    private String buildTsQuery(String query) {
+        List<String> tokens = SearchTextFolder.tokens(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        return tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+    }
+
+    private Specification<Product> buildListingSpecification(UUID categoryId, String sortBy, ListingCursor after) {
+        return (root, query, criteriaBuilder) -> {
+            root.fetch("category", JoinType.LEFT);
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (categoryId != null) {
+                predicates.add(criteriaBuilder.equal(root.get("category").get("id"), categoryId));
             }
 
-            // Filter by minimum rating
-            if (request.getMinRating() != null && request.getMinRating() > 0) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("averageRating"), request.getMinRating()));
+            // Sort key + id tiebreak, seeking past the cursor instead of using OFFSET
+            Path<UUID> id = root.get("id");
+            switch (sortBy) {
+                case "price_asc", "price_desc" -> {
+                    boolean desc = sortBy.equals("price_desc");
+                    Expression<BigDecimal> price = root.get("price");
+                    if (after != null) {
+                        predicates.add(seekAfter(criteriaBuilder, price, new BigDecimal(after.value()), id, after.id(), desc));
+                    }
+                    query.orderBy(desc ? criteriaBuilder.desc(price) : criteriaBuilder.asc(price),
+                            desc ? criteriaBuilder.desc(id) : criteriaBuilder.asc(id));
+                }
+                case "rating" -> {
+                    // A literal, not a bound parameter, so the expression matches idx_products_rating_id
+                    Expression<Double> rating = criteriaBuilder.coalesce(root.<Double>get("averageRating"),
+                            criteriaBuilder.literal(0.0));
+                    if (after != null) {
+                        predicates.add(seekAfter(criteriaBuilder, rating, Double.valueOf(after.value()), id, after.id(), true));
+                    }
+                    query.orderBy(criteriaBuilder.desc(rating), criteriaBuilder.desc(id));
+                }
+                default -> {
+                    Expression<LocalDateTime> createdAt = root.get("createdAt");
+                    if (after != null) {
+                        predicates.add(seekAfter(criteriaBuilder, createdAt, LocalDateTime.parse(after.value()), id, after.id(), true));
+                    }
+                    query.orderBy(criteriaBuilder.desc(createdAt), criteriaBuilder.desc(id));
+                }
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
 
-    private Pageable buildPageable(ProductSearchDTO.SearchRequest request) {
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 20;
-        
-        Sort sort = switch (request.getSortBy()) {
-            case "price_asc" -> Sort.by(Sort.Direction.ASC, "price");
-            case "price_desc" -> Sort.by(Sort.Direction.DESC, "price");
-            case "rating" -> Sort.by(Sort.Direction.DESC, "averageRating");
-            default -> Sort.by(Sort.Direction.DESC, "createdAt"); // newest
+    /**
+     * (key, id) strictly after (value, lastId) in sort order. The leading bound on key alone is implied by the
+     * rest but lets the planner start the index scan at the cursor instead of filtering from the first row.
+     */
+    private <Y extends Comparable<? super Y>> Predicate seekAfter(CriteriaBuilder criteriaBuilder, Expression<Y> key, Y value,
+                                                                 Path<UUID> id, UUID lastId, boolean desc) {
+        if (desc) {
+            return criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(key, value),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(key, value),
+                            criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.lessThan(id, lastId))));
+        }
+        return criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(key, value),
+                criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(key, value),
+                        criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.greaterThan(id, lastId))));
+    }
+
+    private String normalizeListingSort(String sortBy) {
+        if (sortBy == null) {
+            return "newest";
+        }
+        return switch (sortBy) {
+            case "price_asc", "price_desc", "rating" -> sortBy;
+            default -> "newest";
         };
+    }
 
-        return PageRequest.of(page, size, sort);
+    private String listingSortValue(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "price_asc", "price_desc" -> product.getPrice().toPlainString();
+            case "rating" -> String.valueOf(product.getAverageRating() != null ? product.getAverageRating() : 0.0);
+            default -> product.getCreatedAt().toString();
+        };
+    }
+
+    /**
+     * Opaque keyset cursor: the sort it was issued for, the last row's sort key and its id.
+     */
+    private record ListingCursor(String sortBy, String value, UUID id) {
+
+        String encode() {
+            String raw = sortBy + "|" + value + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ListingCursor decode(String cursor, String expectedSortBy) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                if (parts.length != 3 || !parts[0].equals(expectedSortBy)) {
+                    throw new BadRequestException("Cursor does not match the requested sort");
+                }
+                switch (parts[0]) {
+                    case "price_asc", "price_desc" -> new BigDecimal(parts[1]);
+                    case "rating" -> Double.valueOf(parts[1]);
+                    default -> LocalDateTime.parse(parts[1]);
+                }
+                return new ListingCursor(parts[0], parts[1], UUID.fromString(parts[2]));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
     }
 }
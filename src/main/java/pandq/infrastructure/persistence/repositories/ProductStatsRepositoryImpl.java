@@ -0,0 +1,49 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.ProductStatsRepository;
+
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductStatsRepositoryImpl implements ProductStatsRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Recompute units sold over the last 30 days and the best-seller ranks in one statement.
+     * available_stock is only seeded for new rows; the inventory trigger owns it afterwards.
+     */
+    @Override
+    public int refreshSalesWindowAndRanks() {
+        return jdbcTemplate.update("""
+                INSERT INTO product_stats (product_id, available_stock, units_sold_30d, best_seller_rank, updated_at)
+                SELECT p.id,
+                       COALESCE(inv.available, 0),
+                       COALESCE(sold.units, 0),
+                       CASE WHEN COALESCE(sold.units, 0) > 0
+                            THEN RANK() OVER (ORDER BY COALESCE(sold.units, 0) DESC) END,
+                       now()
+                FROM products p
+                LEFT JOIN (
+                    SELECT product_id, SUM(quantity - COALESCE(reserved_quantity, 0)) AS available
+                    FROM inventory
+                    GROUP BY product_id
+                ) inv ON inv.product_id = p.id
+                LEFT JOIN (
+                    SELECT oi.product_id, SUM(oi.quantity) AS units
+                    FROM orders o
+                    JOIN order_items oi ON oi.order_id = o.id
+                    WHERE o.status = 'COMPLETED' AND o.updated_at >= now() - interval '30 days'
+                    GROUP BY oi.product_id
+                ) sold ON sold.product_id = p.id
+                ON CONFLICT (product_id) DO UPDATE
+                SET units_sold_30d = EXCLUDED.units_sold_30d,
+                    best_seller_rank = EXCLUDED.best_seller_rank,
+                    updated_at = EXCLUDED.updated_at
+                """, Map.of());
+    }
+}
@@ -2,19 +2,31 @@ package pandq.infrastructure.persistence.repositories;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 import pandq.application.port.repositories.SearchKeywordRepository;
 import pandq.domain.models.search.SearchKeyword;
 import pandq.infrastructure.persistence.repositories.jpa.JpaSearchKeywordRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
 public class SearchKeywordRepositoryImpl implements SearchKeywordRepository {
     
+    private static final String UPSERT_SEARCH_COUNT_SQL =
+            "INSERT INTO search_keywords (id, keyword, search_count, last_searched_at) " +
+            "VALUES (gen_random_uuid(), :keyword, :count, now()) " +
+            "ON CONFLICT (keyword) DO UPDATE SET " +
+            "search_count = search_keywords.search_count + EXCLUDED.search_count, " +
+            "last_searched_at = EXCLUDED.last_searched_at";
+
     private final JpaSearchKeywordRepository jpaRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @Override
     public SearchKeyword save(SearchKeyword searchKeyword) {
@@ -30,4 +42,17 @@ public class SearchKeywordRepositoryImpl implements SearchKeywordRepository {
     public List<SearchKeyword> findTopKeywords(int limit) {
         return jpaRepository.findTopKeywords(PageRequest.of(0, limit));
     }
+
+    @Override
+    public void incrementSearchCounts(Map<String, Long> countsByKeyword) {
+        if (countsByKeyword.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = countsByKeyword.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("keyword", entry.getKey())
+                        .addValue("count", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_SEARCH_COUNT_SQL, batch);
+    }
 }
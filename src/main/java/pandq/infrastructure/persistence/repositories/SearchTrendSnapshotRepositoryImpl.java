@@ -0,0 +1,27 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.SearchTrendSnapshotRepository;
+import pandq.domain.models.search.SearchTrendSnapshot;
+import pandq.infrastructure.persistence.repositories.jpa.JpaSearchTrendSnapshotRepository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SearchTrendSnapshotRepositoryImpl implements SearchTrendSnapshotRepository {
+
+    private final JpaSearchTrendSnapshotRepository jpaRepository;
+
+    @Override
+    public List<SearchTrendSnapshot> findByWindowName(String windowName) {
+        return jpaRepository.findByWindowName(windowName);
+    }
+
+    @Override
+    public void replaceWindow(String windowName, List<SearchTrendSnapshot> snapshots) {
+        jpaRepository.deleteByWindowName(windowName);
+        jpaRepository.saveAll(snapshots);
+    }
+}
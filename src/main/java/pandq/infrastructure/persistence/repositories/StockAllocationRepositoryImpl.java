@@ -0,0 +1,73 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.StockAllocationRepository;
+import pandq.domain.models.branch.StockAllocation;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class StockAllocationRepositoryImpl implements StockAllocationRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_item_allocations (id, order_item_id, inventory_id, branch_id, product_id, quantity, created_at) " +
+            "VALUES (:id, :orderItemId, :inventoryId, :branchId, :productId, :quantity, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void saveAll(Collection<StockAllocation> allocations) {
+        if (allocations.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] batch = allocations.stream()
+                .map(allocation -> new MapSqlParameterSource()
+                        .addValue("id", UUID.randomUUID())
+                        .addValue("orderItemId", allocation.orderItemId())
+                        .addValue("inventoryId", allocation.inventoryId())
+                        .addValue("branchId", allocation.branchId())
+                        .addValue("productId", allocation.productId())
+                        .addValue("quantity", allocation.quantity())
+                        .addValue("createdAt", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    @Override
+    public List<StockAllocation> findByOrderItemIds(Collection<UUID> orderItemIds) {
+        if (orderItemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(
+                "SELECT order_item_id, inventory_id, branch_id, product_id, quantity " +
+                "FROM order_item_allocations WHERE order_item_id IN (:orderItemIds)",
+                new MapSqlParameterSource("orderItemIds", orderItemIds),
+                (rs, rowNum) -> new StockAllocation(
+                        rs.getObject("order_item_id", UUID.class),
+                        rs.getObject("inventory_id", UUID.class),
+                        rs.getObject("branch_id", UUID.class),
+                        rs.getObject("product_id", UUID.class),
+                        rs.getInt("quantity")));
+    }
+
+    @Override
+    public void deleteByOrderItemIds(Collection<UUID> orderItemIds) {
+        if (orderItemIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+                "DELETE FROM order_item_allocations WHERE order_item_id IN (:orderItemIds)",
+                new MapSqlParameterSource("orderItemIds", orderItemIds));
+    }
+}
@@ -0,0 +1,38 @@
+package pandq.infrastructure.persistence.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import pandq.application.port.repositories.SyncChangeRepository;
+import pandq.domain.models.enums.SyncEntityType;
+import pandq.domain.models.sync.SyncChange;
+import pandq.infrastructure.persistence.repositories.jpa.JpaSyncChangeRepository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class SyncChangeRepositoryImpl implements SyncChangeRepository {
+
+    private final JpaSyncChangeRepository jpaRepository;
+
+    @Override
+    public List<SyncChange> findChangesSince(long version, int limit) {
+        return jpaRepository.findChangesSince(version, limit);
+    }
+
+    @Override
+    public List<SyncChange> findChangesAt(long version) {
+        return jpaRepository.findChangesAt(version);
+    }
+
+    @Override
+    public Map<SyncEntityType, Long> findLatestVersions() {
+        Map<SyncEntityType, Long> versions = new EnumMap<>(SyncEntityType.class);
+        for (Object[] row : jpaRepository.findLatestVersions()) {
+            versions.put(SyncEntityType.valueOf((String) row[0]), ((Number) row[1]).longValue());
+        }
+        return versions;
+    }
+}
@@ -1,11 +1,11 @@
 package pandq.infrastructure.persistence.repositories.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import pandq.domain.models.branch.Inventory;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,18 +14,18 @@ public interface JpaInventoryRepository extends JpaRepository<Inventory, UUID> {
     List<Inventory> findByBranchId(UUID branchId);
     List<Inventory> findByProductId(UUID productId);
     Optional<Inventory> findByBranchIdAndProductId(UUID branchId, UUID productId);
-    
+
     /**
-     * Reset all reserved quantities to 0
+     * Total stock across all branches for a batch of products, one row per product id
      */
-    @Modifying
-    @Query("UPDATE Inventory i SET i.reservedQuantity = 0")
-    void resetAllReservedQuantities();
-    
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM Inventory i " +
+            "WHERE i.product.id IN :productIds GROUP BY i.product.id")
+    List<Object[]> sumQuantityByProductIds(@Param("productIds") Collection<UUID> productIds);
+
     /**
-     * Update reserved quantity for a specific product
+     * Unreserved stock across all branches for a batch of products, one row per product id
      */
-    @Modifying
-    @Query("UPDATE Inventory i SET i.reservedQuantity = :quantity WHERE i.product.id = :productId")
-    void updateReservedQuantityByProductId(@Param("productId") UUID productId, @Param("quantity") int quantity);
+    @Query("SELECT i.product.id, SUM(i.quantity - COALESCE(i.reservedQuantity, 0)) FROM Inventory i " +
+            "WHERE i.product.id IN :productIds GROUP BY i.product.id")
+    List<Object[]> sumAvailableQuantityByProductIds(@Param("productIds") Collection<UUID> productIds);
 }
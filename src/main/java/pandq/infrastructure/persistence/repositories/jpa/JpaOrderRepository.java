@@ -1,15 +1,27 @@
 package pandq.infrastructure.persistence.repositories.jpa;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import pandq.domain.models.enums.OrderStatus;
 import pandq.domain.models.order.Order;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface JpaOrderRepository extends JpaRepository<Order, UUID> {
+        /**
+         * Order with its user, items and their products in one query; a single bag, so no cartesian duplicates
+         */
+        @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+        Optional<Order> findWithItemsById(UUID id);
+
+        @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+        List<Order> findWithItemsByIdIn(Collection<UUID> ids);
+
         List<Order> findByUserId(UUID userId);
 
         List<Order> findByUserIdAndStatus(UUID userId, OrderStatus status);
@@ -39,10 +51,4 @@ public interface JpaOrderRepository extends JpaRepository<Order, UUID> {
         long countNewCustomersInRange(
                         @Param("startDate") java.time.LocalDateTime startDate,
                         @Param("endDate") java.time.LocalDateTime endDate);
-
-        /**
-         * Get orders with CONFIRMED or SHIPPING status (orders that need inventory reserved)
-         */
-        @Query("SELECT o FROM Order o WHERE o.status IN ('CONFIRMED', 'SHIPPING')")
-        List<Order> findActiveOrdersWithReservedInventory();
 }
@@ -0,0 +1,11 @@
+package pandq.infrastructure.persistence.repositories.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import pandq.domain.models.order.OrderStatusHistory;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaOrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, UUID> {
+        List<OrderStatusHistory> findByOrderIdOrderByCreatedAtAsc(UUID orderId);
+}
@@ -0,0 +1,21 @@
+package pandq.infrastructure.persistence.repositories.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pandq.domain.models.product.ProductCoPurchase;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaProductCoPurchaseRepository extends JpaRepository<ProductCoPurchase, UUID> {
+
+    @Query("SELECT c FROM ProductCoPurchase c JOIN FETCH c.relatedProduct " +
+           "WHERE c.product.id IN :productIds ORDER BY c.product.id, c.position")
+    List<ProductCoPurchase> findByProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("SELECT MAX(c.computedAt) FROM ProductCoPurchase c")
+    LocalDateTime findLastComputedAt();
+}
@@ -2,11 +2,42 @@ package pandq.infrastructure.persistence.repositories.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import pandq.domain.models.product.Product;
+import pandq.domain.models.product.ProductImage;
+import pandq.domain.models.product.ProductSpecification;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface JpaProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
-    List<Product> findByCategoryId(UUID categoryId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
+    List<Product> findAllWithCategory();
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId")
+    List<Product> findByCategoryId(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Images of a batch of products, ordered for display
+     */
+    @Query("SELECT img FROM ProductImage img WHERE img.product.id IN :productIds ORDER BY img.displayOrder")
+    List<ProductImage> findImagesByProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Specifications of a batch of products
+     */
+    @Query("SELECT spec FROM ProductSpecification spec WHERE spec.product.id IN :productIds")
+    List<ProductSpecification> findSpecificationsByProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * (productId, relatedProduct) pairs for a batch of products
+     */
+    @Query("SELECT p.id, r FROM Product p JOIN p.relatedProducts r WHERE p.id IN :productIds")
+    List<Object[]> findRelatedProductPairs(@Param("productIds") Collection<UUID> productIds);
 }
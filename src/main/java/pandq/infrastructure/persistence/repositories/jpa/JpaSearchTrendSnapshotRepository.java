@@ -0,0 +1,18 @@
+package pandq.infrastructure.persistence.repositories.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pandq.domain.models.search.SearchTrendSnapshot;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaSearchTrendSnapshotRepository extends JpaRepository<SearchTrendSnapshot, UUID> {
+    List<SearchTrendSnapshot> findByWindowName(String windowName);
+
+    @Modifying
+    @Query("DELETE FROM SearchTrendSnapshot s WHERE s.windowName = :windowName")
+    void deleteByWindowName(@Param("windowName") String windowName);
+}
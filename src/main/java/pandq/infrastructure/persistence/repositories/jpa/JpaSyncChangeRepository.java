@@ -0,0 +1,30 @@
+package pandq.infrastructure.persistence.repositories.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import pandq.domain.models.sync.SyncChange;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface JpaSyncChangeRepository extends JpaRepository<SyncChange, UUID> {
+
+    /**
+     * Versions below this were written by transactions that have all finished, so no change can still
+     * appear below it. Versions are the writing transaction id offset by 2^40 (see record_sync_change).
+     */
+    String COMMITTED_BELOW = "txid_snapshot_xmin(txid_current_snapshot()) + 1099511627776";
+
+    @Query(value = "SELECT * FROM sync_changes WHERE version > :version AND version < " + COMMITTED_BELOW +
+            " ORDER BY version, entity_type, entity_id LIMIT :limit", nativeQuery = true)
+    List<SyncChange> findChangesSince(@Param("version") long version, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM sync_changes WHERE version = :version AND version < " + COMMITTED_BELOW +
+            " ORDER BY entity_type, entity_id", nativeQuery = true)
+    List<SyncChange> findChangesAt(@Param("version") long version);
+
+    @Query(value = "SELECT entity_type, MAX(version) FROM sync_changes WHERE version < " + COMMITTED_BELOW +
+            " GROUP BY entity_type", nativeQuery = true)
+    List<Object[]> findLatestVersions();
+}
@@ -1,6 +1,8 @@
 package pandq.infrastructure.persistence.repositories.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pandq.domain.models.marketing.UserVoucher;
 
@@ -16,6 +18,11 @@ public interface JpaUserVoucherRepository extends JpaRepository<UserVoucher, UUI
     List<UserVoucher> findByUserIdAndIsUsedFalse(UUID userId);
     
     Optional<UserVoucher> findByUserIdAndPromotionId(UUID userId, UUID promotionId);
+
+    @Query("SELECT uv FROM UserVoucher uv JOIN FETCH uv.promotion " +
+            "WHERE uv.user.id = :userId AND uv.promotion.id = :promotionId")
+    Optional<UserVoucher> findWithPromotionByUserIdAndPromotionId(@Param("userId") UUID userId,
+                                                                  @Param("promotionId") UUID promotionId);
     
     boolean existsByUserIdAndPromotionId(UUID userId, UUID promotionId);
 }
@@ -0,0 +1,23 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.CartService;
+
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class CartScheduler {
+
+    private final CartService cartService;
+
+    /**
+     * Run every 5 seconds to write changed carts.
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void flushCarts() {
+        cartService.flush();
+    }
+}
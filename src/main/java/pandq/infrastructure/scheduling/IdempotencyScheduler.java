@@ -0,0 +1,28 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.IdempotencyService;
+
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class IdempotencyScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Run every hour to delete expired idempotency keys.
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeExpiredKeys() {
+        int deleted = idempotencyService.purgeExpired();
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.adapter.web.api.dtos.InventoryDTO;
+import pandq.application.services.InventoryService;
+
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class InventoryReconciliationScheduler {
+
+    private final InventoryService inventoryService;
+
+    /**
+     * Run every 15 minutes to correct reserved quantities that drifted from the active orders.
+     */
+    @Scheduled(fixedDelay = 900000, initialDelay = 120000)
+    public void reconcileReservedQuantities() {
+        InventoryDTO.ReconciliationResponse result = inventoryService.reconcileReservedQuantities();
+        if (result.getRowsCorrected() > 0) {
+            log.warn("Corrected reserved quantity drift on {} of {} inventory rows",
+                    result.getRowsCorrected(), result.getRowsChecked());
+        }
+    }
+}
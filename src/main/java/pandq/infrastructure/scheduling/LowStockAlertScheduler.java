@@ -0,0 +1,28 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.LowStockAlertService;
+
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class LowStockAlertScheduler {
+
+    private final LowStockAlertService lowStockAlertService;
+
+    /**
+     * Run every minute to send the low-stock alerts collected since the last run.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void sendLowStockAlerts() {
+        int reported = lowStockAlertService.flush();
+        if (reported > 0) {
+            log.info("Sent low-stock alert for {} products", reported);
+        }
+    }
+}
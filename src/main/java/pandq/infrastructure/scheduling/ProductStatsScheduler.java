@@ -0,0 +1,23 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.ProductStatsService;
+
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class ProductStatsScheduler {
+
+    private final ProductStatsService productStatsService;
+
+    /**
+     * Run every hour to slide the sales window and refresh best-seller ranks.
+     */
+    @Scheduled(fixedRate = 3600000, initialDelay = 300000)
+    public void refreshProductStats() {
+        productStatsService.refresh();
+    }
+}
@@ -0,0 +1,34 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.RelatedProductService;
+
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationScheduler {
+
+    private final RelatedProductService relatedProductService;
+
+    /**
+     * Run every 10 minutes to fold newly completed orders into the co-purchase neighbours.
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 60000)
+    public void refreshCoPurchases() {
+        log.debug("Refreshing co-purchase neighbours...");
+        relatedProductService.refresh();
+    }
+
+    /**
+     * Run nightly at 03:00 to rebuild all neighbours, dropping pairs from returned or cancelled orders.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    public void rebuildCoPurchases() {
+        relatedProductService.rebuild();
+    }
+}
@@ -0,0 +1,46 @@
+package pandq.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pandq.application.services.ProductSuggestionService;
+import pandq.application.services.SearchKeywordService;
+import pandq.application.services.TrendingSearchService;
+
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
+public class SearchScheduler {
+
+    private final ProductSuggestionService productSuggestionService;
+    private final SearchKeywordService searchKeywordService;
+    private final TrendingSearchService trendingSearchService;
+
+    /**
+     * Run every 30 seconds to write buffered search keyword counts.
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void flushSearchKeywords() {
+        searchKeywordService.flush();
+    }
+
+    /**
+     * Run every 10 minutes to pick up newly popular search keywords for autocomplete.
+     */
+    @Scheduled(fixedRate = 600000, initialDelay = 600000)
+    public void refreshSuggestionKeywords() {
+        log.debug("Refreshing suggestion keywords...");
+        productSuggestionService.refreshKeywords();
+    }
+
+    /**
+     * Run every 5 minutes to checkpoint trending search counters.
+     */
+    @Scheduled(fixedRate = 300000, initialDelay = 300000)
+    public void checkpointTrendingSearches() {
+        trendingSearchService.checkpoint();
+    }
+}
@@ -3,7 +3,9 @@ package pandq.infrastructure.services;
 import java.util.UUID;
 
 import pandq.application.port.services.CurrentUserService;
+import pandq.application.services.IdentityService;
 import pandq.domain.models.user.User;
+import pandq.domain.models.user.UserPrincipal;
 import pandq.infrastructure.errors.exceptions.UserNotFoundException;
 import pandq.infrastructure.persistence.repositories.jpa.JpaUserRepository;
 import lombok.AllArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class CurrentUserServiceImpl implements CurrentUserService {
 
     private final JpaUserRepository userJpaRepository;
+    private final IdentityService identityService;
 
     @Override
     public User getCurrentUser() {
@@ -25,6 +28,9 @@ public class CurrentUserServiceImpl implements CurrentUserService {
 
     @Override
     public UUID getCurrentUserId() {
-        return getCurrentUser().getId();
+        String firebaseUid = SecurityContextHolder.getContext().getAuthentication().getName();
+        return identityService.resolve(firebaseUid)
+                .map(UserPrincipal::id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with UID: " + firebaseUid));
     }
 }
@@ -0,0 +1,185 @@
+package pandq.domain.models.branch;
+
+import org.junit.jupiter.api.Test;
+import pandq.domain.models.enums.BranchStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockAllocatorTest {
+
+    private static final GeoPoint DESTINATION = new GeoPoint(10.0, 106.0);
+
+    private static final UUID NEAR = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID MID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID FAR = UUID.fromString("00000000-0000-0000-0000-000000000003");
+    private static final UUID CLOSED = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+    private static final UUID PHONE = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID CASE = UUID.fromString("00000000-0000-0000-0000-0000000000a2");
+    private static final UUID GIFT_CARD = UUID.fromString("00000000-0000-0000-0000-0000000000a3");
+
+    private static final BranchLocationIndex BRANCHES = BranchLocationIndex.of(List.of(
+            branch(NEAR, 10.0, 106.0, BranchStatus.ACTIVE),
+            branch(MID, 10.5, 106.0, BranchStatus.ACTIVE),
+            branch(FAR, 11.0, 106.0, BranchStatus.ACTIVE),
+            branch(CLOSED, 10.0, 106.0, BranchStatus.CLOSED)));
+
+    @Test
+    void wholeOrderShipsFromNearestBranchThatCoversIt() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(
+                level(NEAR, PHONE, 5), level(NEAR, CASE, 0),
+                level(MID, PHONE, 5), level(MID, CASE, 5)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 2), line(CASE, 2)), DESTINATION);
+
+        assertEquals(Set.of(MID), branchesUsed(plan));
+        assertEquals(Map.of(PHONE, 2, CASE, 2), quantitiesByProduct(plan));
+        assertTrue(plan.shortProductIds().isEmpty());
+    }
+
+    @Test
+    void distanceTieBetweenCoveringBranchesGoesToLowerBranchId() {
+        UUID twin = UUID.fromString("00000000-0000-0000-0000-000000000005");
+        BranchLocationIndex branches = BranchLocationIndex.of(List.of(
+                branch(twin, 10.0, 106.0, BranchStatus.ACTIVE),
+                branch(NEAR, 10.0, 106.0, BranchStatus.ACTIVE)));
+        StockAllocator allocator = new StockAllocator(branches, List.of(level(twin, PHONE, 5), level(NEAR, PHONE, 5)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 3)), DESTINATION);
+
+        assertEquals(Set.of(NEAR), branchesUsed(plan));
+    }
+
+    @Test
+    void withoutACoveringBranchEachLineTakesNearestBranchCoveringIt() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(
+                level(NEAR, PHONE, 5), level(NEAR, CASE, 0),
+                level(MID, PHONE, 0), level(MID, CASE, 1),
+                level(FAR, CASE, 5)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 2), line(CASE, 2)), DESTINATION);
+
+        assertEquals(List.of(
+                new Taken(NEAR, PHONE, 2),
+                new Taken(FAR, CASE, 2)), taken(plan));
+        assertTrue(plan.shortProductIds().isEmpty());
+    }
+
+    @Test
+    void partialFillPrefersMoreStockWhenDistanceTies() {
+        UUID twin = UUID.fromString("00000000-0000-0000-0000-000000000005");
+        BranchLocationIndex branches = BranchLocationIndex.of(List.of(
+                branch(NEAR, 10.0, 106.0, BranchStatus.ACTIVE),
+                branch(twin, 10.0, 106.0, BranchStatus.ACTIVE),
+                branch(FAR, 11.0, 106.0, BranchStatus.ACTIVE)));
+        StockAllocator allocator = new StockAllocator(branches, List.of(
+                level(NEAR, PHONE, 4), level(twin, PHONE, 6),
+                level(FAR, CASE, 3)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 3), line(CASE, 1)), DESTINATION);
+
+        assertEquals(List.of(
+                new Taken(twin, PHONE, 3),
+                new Taken(FAR, CASE, 1)), taken(plan));
+    }
+
+    @Test
+    void lineNoBranchCoversIsSplitNearestFirst() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(
+                level(FAR, PHONE, 3), level(NEAR, PHONE, 2), level(MID, PHONE, 3)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 6)), DESTINATION);
+
+        assertEquals(List.of(
+                new Taken(NEAR, PHONE, 2),
+                new Taken(MID, PHONE, 3),
+                new Taken(FAR, PHONE, 1)), taken(plan));
+        assertTrue(plan.shortProductIds().isEmpty());
+    }
+
+    @Test
+    void shortStockIsAllocatedAsFarAsItGoesAndReported() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(level(NEAR, PHONE, 2), level(MID, PHONE, 1)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 5)), DESTINATION);
+
+        assertEquals(Map.of(PHONE, 3), quantitiesByProduct(plan));
+        assertEquals(Set.of(PHONE), plan.shortProductIds());
+    }
+
+    @Test
+    void stockAtBranchesThatDoNotShipCountsAsShort() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(level(CLOSED, PHONE, 10)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 1)), DESTINATION);
+
+        assertTrue(plan.allocations().isEmpty());
+        assertEquals(Set.of(PHONE), plan.shortProductIds());
+    }
+
+    @Test
+    void laterOrdersOnlySeeStockEarlierOnesLeft() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(level(NEAR, PHONE, 3)));
+
+        StockAllocator.Plan first = allocator.allocate(List.of(line(PHONE, 2)), DESTINATION);
+        StockAllocator.Plan second = allocator.allocate(List.of(line(PHONE, 2)), DESTINATION);
+
+        assertEquals(Map.of(PHONE, 2), quantitiesByProduct(first));
+        assertEquals(Map.of(PHONE, 1), quantitiesByProduct(second));
+        assertEquals(Set.of(PHONE), second.shortProductIds());
+    }
+
+    @Test
+    void productsWithoutInventoryAreNotTracked() {
+        StockAllocator allocator = new StockAllocator(BRANCHES, List.of(level(NEAR, PHONE, 1)));
+
+        StockAllocator.Plan plan = allocator.allocate(List.of(line(PHONE, 1), line(GIFT_CARD, 5)), DESTINATION);
+
+        assertEquals(Map.of(PHONE, 1), quantitiesByProduct(plan));
+        assertTrue(plan.shortProductIds().isEmpty());
+    }
+
+    private record Taken(UUID branchId, UUID productId, int quantity) {
+    }
+
+    private static List<Taken> taken(StockAllocator.Plan plan) {
+        return plan.allocations().stream()
+                .map(allocation -> new Taken(allocation.branchId(), allocation.productId(), allocation.quantity()))
+                .toList();
+    }
+
+    private static Set<UUID> branchesUsed(StockAllocator.Plan plan) {
+        return plan.allocations().stream().map(StockAllocation::branchId).collect(Collectors.toSet());
+    }
+
+    private static Map<UUID, Integer> quantitiesByProduct(StockAllocator.Plan plan) {
+        return plan.allocations().stream()
+                .collect(Collectors.groupingBy(StockAllocation::productId, Collectors.summingInt(StockAllocation::quantity)));
+    }
+
+    private static Branch branch(UUID id, double latitude, double longitude, BranchStatus status) {
+        return Branch.builder()
+                .id(id)
+                .name("Branch " + id)
+                .address("1 Nguyen Hue, Ho Chi Minh")
+                .latitude(latitude)
+                .longitude(longitude)
+                .status(status)
+                .build();
+    }
+
+    private static InventoryLevel level(UUID branchId, UUID productId, int available) {
+        return new InventoryLevel(UUID.randomUUID(), branchId, productId, available);
+    }
+
+    private static StockAllocator.Line line(UUID productId, int quantity) {
+        return new StockAllocator.Line(UUID.randomUUID(), productId, quantity);
+    }
+}